@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+
+/**
+ * Compara a associação de consultas a pacientes feita com laço aninhado
+ * (implementação original, O(pacientes × consultas)) com o hash join de
+ * {@link Main#associateAppointmentsToPatients(List, List)}.
+ *
+ * Uso: java AssociationBenchmark [pacientes:consultas ...]
+ * Ex.: java AssociationBenchmark 1000:10000 500000:3000000
+ */
+public class AssociationBenchmark {
+
+    /** Acima deste número de comparações o laço aninhado não é executado */
+    private static final long NESTED_LOOP_LIMIT = 5_000_000_000L;
+
+    public static void main(String[] args) {
+        String[] sizes = args.length > 0 ? args
+                : new String[]{"1000:10000", "10000:100000", "20000:200000", "500000:2000000"};
+
+        for (String size : sizes) {
+            String[] parts = size.split(":");
+            int patientCount = Integer.parseInt(parts[0]);
+            int appointmentCount = Integer.parseInt(parts[1]);
+
+            List<Patient> patients = new ArrayList<>(patientCount);
+            List<Appointment> appointments = new ArrayList<>(appointmentCount);
+            generate(patientCount, appointmentCount, patients, appointments);
+
+            System.out.printf("%,d pacientes × %,d consultas%n", patientCount, appointmentCount);
+
+            // Aquecimento
+            Main.associateAppointmentsToPatients(patients, appointments);
+
+            long start = System.nanoTime();
+            Main.associateAppointmentsToPatients(patients, appointments);
+            long hashNanos = System.nanoTime() - start;
+            System.out.printf("  Hash join:     %10.1f ms%n", hashNanos / 1e6);
+
+            // Comparações esperadas no laço aninhado: em média metade dos pacientes por consulta
+            long comparisons = (long) patientCount * appointmentCount / 2;
+            if (comparisons > NESTED_LOOP_LIMIT) {
+                System.out.printf("  Laço aninhado: omitido (~%,d comparações de CPF)%n", comparisons);
+                continue;
+            }
+
+            start = System.nanoTime();
+            nestedLoop(patients, appointments);
+            long nestedNanos = System.nanoTime() - start;
+            System.out.printf("  Laço aninhado: %10.1f ms (%.0fx mais lento)%n",
+                    nestedNanos / 1e6, (double) nestedNanos / hashNanos);
+        }
+    }
+
+    /**
+     * Cópia da implementação original de Main.associateAppointmentsToPatients
+     */
+    private static void nestedLoop(List<Patient> patients, List<Appointment> appointments) {
+        for (Patient patient : patients) {
+            patient.getAppointmentList().clear();
+        }
+        for (Appointment appointment : appointments) {
+            for (Patient patient : patients) {
+                if (patient.getCpf().equals(appointment.getPatientCPF())) {
+                    patient.addAppointment(appointment);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void generate(int patientCount, int appointmentCount,
+                                 List<Patient> patients, List<Appointment> appointments) {
+        Random random = new Random(42);
+        for (int i = 0; i < patientCount; i++) {
+            patients.add(new Patient("Paciente " + i, String.format("%011d", 10_000_000_000L + i)));
+        }
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < appointmentCount; i++) {
+            // CPF gerado novamente (sem compartilhar a instância), como acontece ao ler o CSV
+            String cpf = String.format("%011d", 10_000_000_000L + random.nextInt(patientCount));
+            appointments.add(new Appointment(base.plusDays(random.nextInt(3650)),
+                    LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4)),
+                    cpf, String.valueOf(10_000 + random.nextInt(1000)), AppointmentStatus.PENDING));
+        }
+    }
+}
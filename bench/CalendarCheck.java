@@ -0,0 +1,255 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Verificação diferencial do {@link DoctorCalendar}: aplica uma sequência
+ * aleatória (com semente) de marcações, liberações e remarcações, e compara
+ * cada consulta à agenda com o resultado de uma varredura completa das
+ * consultas marcadas:
+ * <ul>
+ *   <li>{@link DoctorCalendar#overlapping} (usada na verificação de conflito),
+ *   com horários fora da grade de 15 minutos e durações variadas;</li>
+ *   <li>{@link DoctorCalendar#nextFreeSlots}, que usa o mapa de bits e as
+ *   contagens das faixas ocupadas por mais de uma consulta;</li>
+ *   <li>{@link DoctorCalendar#earliestFreeSlots}, entre vários médicos.</li>
+ * </ul>
+ * As consultas podem se sobrepor, atravessar a meia-noite e a virada do mês,
+ * e são liberadas também em duplicidade ou sem terem sido marcadas.
+ *
+ * Termina com código 1 na primeira divergência.
+ *
+ * Uso: java CalendarCheck [operações] [semente]
+ */
+public class CalendarCheck {
+
+    private static final int DOCTORS = 6;
+    private static final int WINDOW_DAYS = 75;
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 20);
+    private static final int SLOT_MINUTES = 15;
+    private static final int MAX_SEARCH_DAYS = 366;
+    private static final int[] DURATIONS = {5, 10, 15, 20, 30, 30, 30, 45, 60, 90, 240};
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        Random random = new Random(seed);
+
+        List<String> crms = new ArrayList<>(DOCTORS);
+        for (int i = 0; i < DOCTORS; i++) {
+            crms.add(String.valueOf(10_000 + i));
+        }
+        DoctorCalendar calendar = new DoctorCalendar();
+        List<Appointment> booked = new ArrayList<>();
+        List<Appointment> released = new ArrayList<>();
+
+        long books = 0;
+        long releases = 0;
+        long queries = 0;
+        long t0 = System.nanoTime();
+        for (int op = 0; op < operations; op++) {
+            int kind = random.nextInt(10);
+            if (kind < 4 || booked.isEmpty()) {
+                Appointment appointment = randomAppointment(random, crms.get(random.nextInt(DOCTORS)));
+                calendar.book(appointment);
+                booked.add(appointment);
+                books++;
+            } else if (kind < 6) {
+                // Liberação (cancelamento ou consulta realizada)
+                Appointment appointment = booked.remove(random.nextInt(booked.size()));
+                calendar.release(appointment);
+                released.add(appointment);
+                releases++;
+            } else if (kind == 6) {
+                // Remarcação: libera a consulta e marca outra do mesmo médico
+                Appointment appointment = booked.remove(random.nextInt(booked.size()));
+                calendar.release(appointment);
+                Appointment moved = randomAppointment(random, appointment.getDoctorCRM());
+                calendar.book(moved);
+                booked.add(moved);
+                releases++;
+                books++;
+            } else if (kind == 7) {
+                // Liberações que não devem mudar nada: repetida ou de consulta nunca marcada
+                Appointment appointment = !released.isEmpty() && random.nextBoolean()
+                        ? released.get(random.nextInt(released.size()))
+                        : randomAppointment(random, crms.get(random.nextInt(DOCTORS)));
+                calendar.release(appointment);
+            } else {
+                checkQueries(random, calendar, booked, crms, op);
+                queries++;
+            }
+        }
+        // Verificação final de todos os médicos, a partir do início da janela
+        for (String crm : crms) {
+            for (int duration : DURATIONS) {
+                LocalDateTime from = BASE.atStartOfDay();
+                compare("nextFreeSlots final " + crm + " " + duration + " min",
+                        calendar.nextFreeSlots(crm, from, 500, duration),
+                        expectedFreeSlots(booked, crm, from, 500, duration));
+            }
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%,d operações em %.1f s (semente %d, %d médicos)%n", operations, seconds, seed, DOCTORS);
+        System.out.printf("  Marcações: %,d | liberações: %,d | consultas à agenda: %,d | marcadas no fim: %,d%n",
+                books, releases, queries, booked.size());
+        System.out.println("  Verificação: agenda igual à varredura completa em todas as consultas");
+    }
+
+    private static void checkQueries(Random random, DoctorCalendar calendar, List<Appointment> booked,
+                                     List<String> crms, int op) {
+        String crm = crms.get(random.nextInt(DOCTORS));
+        LocalDate date = BASE.plusDays(random.nextInt(WINDOW_DAYS));
+        LocalTime time = LocalTime.of(random.nextInt(24), random.nextInt(60));
+        int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+
+        List<Appointment> overlapping = calendar.overlapping(crm, date, time, duration);
+        List<Appointment> expected = expectedOverlapping(booked, crm, date, time, duration);
+        if (!sameAppointments(overlapping, expected)) {
+            fail(op, "overlapping " + crm + " " + date + " " + time + " " + duration + " min", overlapping, expected);
+        }
+
+        LocalDateTime from = date.atTime(time).plusSeconds(random.nextInt(3) == 0 ? random.nextInt(60) : 0);
+        int count = 1 + random.nextInt(40);
+        compare("nextFreeSlots " + crm + " " + from + " " + duration + " min (operação " + op + ")",
+                calendar.nextFreeSlots(crm, from, count, duration),
+                expectedFreeSlots(booked, crm, from, count, duration));
+
+        List<String> some = new ArrayList<>(crms.subList(0, 1 + random.nextInt(DOCTORS)));
+        List<FreeSlot> earliest = calendar.earliestFreeSlots(some, from, count, duration);
+        List<String> actual = new ArrayList<>();
+        for (FreeSlot slot : earliest) {
+            actual.add(slot.getDateTime() + " " + slot.getDoctorCRM());
+        }
+        compare("earliestFreeSlots " + some + " " + from + " " + duration + " min (operação " + op + ")",
+                actual, expectedEarliest(booked, some, from, count, duration));
+    }
+
+    private static Appointment randomAppointment(Random random, String crm) {
+        // A última semana e as horas da madrugada exercitam viradas de dia e de mês
+        LocalDate date = BASE.plusDays(random.nextInt(WINDOW_DAYS));
+        int hour = random.nextInt(5) == 0 ? random.nextInt(24) : 8 + random.nextInt(10);
+        int minute = random.nextInt(4) == 0 ? random.nextInt(60) : SLOT_MINUTES * random.nextInt(4);
+        int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+        return new Appointment(date, LocalTime.of(hour, minute), "00000000000", crm, AppointmentStatus.PENDING, duration);
+    }
+
+    // Referências: varredura de todas as consultas marcadas
+
+    private static List<Appointment> expectedOverlapping(List<Appointment> booked, String crm, LocalDate date,
+                                                         LocalTime time, int duration) {
+        long start = minuteOf(date, time);
+        long end = start + duration;
+        List<Appointment> result = new ArrayList<>();
+        for (Appointment appointment : booked) {
+            long appointmentStart = minuteOf(appointment.getDate(), appointment.getTime());
+            if (appointment.getDoctorCRM().equals(crm) && appointmentStart < end
+                    && appointmentStart + appointment.getDurationMinutes() > start) {
+                result.add(appointment);
+            }
+        }
+        return result;
+    }
+
+    private static List<LocalDateTime> expectedFreeSlots(List<Appointment> booked, String crm, LocalDateTime from,
+                                                         int count, int duration) {
+        // Faixas de 15 minutos (desde 1970) ocupadas por alguma consulta do médico
+        Set<Long> occupied = new HashSet<>();
+        for (Appointment appointment : booked) {
+            if (appointment.getDoctorCRM().equals(crm)) {
+                long start = minuteOf(appointment.getDate(), appointment.getTime());
+                long end = start + appointment.getDurationMinutes();
+                for (long minute = start; minute < end; minute++) {
+                    occupied.add(Math.floorDiv(minute, SLOT_MINUTES));
+                }
+            }
+        }
+        int length = (duration + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        long slotsPerDay = 24 * 60 / SLOT_MINUTES;
+        int workStart = (DoctorCalendar.WORK_START.toSecondOfDay() / 60) / SLOT_MINUTES;
+        int workEnd = (DoctorCalendar.WORK_END.toSecondOfDay() / 60) / SLOT_MINUTES;
+
+        List<LocalDateTime> result = new ArrayList<>();
+        LocalDate date = from.toLocalDate();
+        for (int day = 0; day < MAX_SEARCH_DAYS && result.size() < count; day++, date = date.plusDays(1)) {
+            for (int slot = workStart; slot + length <= workEnd && result.size() < count; slot++) {
+                LocalDateTime slotStart = date.atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+                if (slotStart.isBefore(from)) {
+                    continue;
+                }
+                boolean free = true;
+                for (int j = 0; j < length && free; j++) {
+                    free = !occupied.contains(date.toEpochDay() * slotsPerDay + slot + j);
+                }
+                if (free) {
+                    result.add(slotStart);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> expectedEarliest(List<Appointment> booked, List<String> crms, LocalDateTime from,
+                                                 int count, int duration) {
+        List<Object[]> all = new ArrayList<>();
+        for (int i = 0; i < crms.size(); i++) {
+            for (LocalDateTime slot : expectedFreeSlots(booked, crms.get(i), from, count, duration)) {
+                all.add(new Object[]{slot, i});
+            }
+        }
+        all.sort(Comparator.comparing((Object[] entry) -> (LocalDateTime) entry[0])
+                .thenComparing(entry -> (Integer) entry[1]));
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, all.size()); i++) {
+            result.add(all.get(i)[0] + " " + crms.get((Integer) all.get(i)[1]));
+        }
+        return result;
+    }
+
+    private static long minuteOf(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * 24 * 60 + time.getHour() * 60 + time.getMinute();
+    }
+
+    private static boolean sameAppointments(List<Appointment> actual, List<Appointment> expected) {
+        if (actual.size() != expected.size()) {
+            return false;
+        }
+        // Mesmas consultas (por identidade), com a lista da agenda em ordem de início
+        Map<Appointment, Boolean> expectedSet = new IdentityHashMap<>();
+        for (Appointment appointment : expected) {
+            expectedSet.put(appointment, Boolean.TRUE);
+        }
+        for (int i = 0; i < actual.size(); i++) {
+            if (expectedSet.remove(actual.get(i)) == null) {
+                return false;
+            }
+            if (i > 0 && minuteOf(actual.get(i).getDate(), actual.get(i).getTime())
+                    < minuteOf(actual.get(i - 1).getDate(), actual.get(i - 1).getTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void compare(String what, List<?> actual, List<?> expected) {
+        if (!actual.equals(expected)) {
+            fail(-1, what, actual, expected);
+        }
+    }
+
+    private static void fail(int op, String what, List<?> actual, List<?> expected) {
+        System.out.println("DIVERGÊNCIA" + (op >= 0 ? " na operação " + op : "") + ": " + what);
+        System.out.println("  agenda:    " + actual);
+        System.out.println("  varredura: " + expected);
+        System.exit(1);
+    }
+}
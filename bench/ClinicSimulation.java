@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simula meses de funcionamento da clínica em segundos, com um relógio virtual
+ * ({@link AppClock#setClock(Clock)}): a cada hora virtual, pacientes marcam
+ * consultas nos primeiros horários livres, cancelam e remarcam, e o
+ * {@link AppointmentStatusScheduler} marca como realizadas as que terminaram.
+ *
+ * Ao final, verifica que nenhuma consulta terminada ficou pendente e que não
+ * há consultas pendentes sobrepostas para o mesmo médico.
+ *
+ * Uso: java ClinicSimulation [meses] [médicos] [marcações por hora]
+ */
+public class ClinicSimulation {
+
+    public static void main(String[] args) throws IOException {
+        int months = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int doctors = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int bookingsPerHour = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        Random random = new Random(42);
+
+        VirtualClock clock = new VirtualClock(LocalDateTime.of(2030, 1, 1, 0, 0));
+        AppClock.setClock(clock);
+        try {
+            List<String> crms = new ArrayList<>(doctors);
+            for (int i = 0; i < doctors; i++) {
+                crms.add(String.valueOf(10_000 + i));
+            }
+            AppointmentRepository repository = new AppointmentRepository();
+            AppointmentStatusScheduler scheduler = new AppointmentStatusScheduler(repository, false);
+
+            long bookings = 0;
+            long cancellations = 0;
+            long reschedules = 0;
+            long completions = 0;
+            List<Appointment> open = new ArrayList<>();
+            LocalDateTime end = clock.now().plusMonths(months);
+
+            long t0 = System.nanoTime();
+            while (clock.now().isBefore(end)) {
+                LocalDateTime now = clock.now();
+                for (int i = 0; i < bookingsPerHour; i++) {
+                    String cpf = String.format("%011d", 10_000_000_000L + random.nextInt(1_000_000));
+                    LocalDateTime from = now.plusDays(random.nextInt(30));
+                    FreeSlot slot;
+                    if (random.nextBoolean()) {
+                        List<FreeSlot> slots = repository.findEarliestFreeSlots(crms, from, 1);
+                        slot = slots.isEmpty() ? null : slots.get(0);
+                    } else {
+                        String crm = crms.get(random.nextInt(doctors));
+                        List<LocalDateTime> slots = repository.findNextFreeSlots(crm, from, 1);
+                        slot = slots.isEmpty() ? null : new FreeSlot(crm, slots.get(0));
+                    }
+                    if (slot == null) {
+                        continue;
+                    }
+                    Appointment appointment = new Appointment(slot.getDateTime().toLocalDate(),
+                            slot.getDateTime().toLocalTime(), cpf, slot.getDoctorCRM(), AppointmentStatus.PENDING);
+                    repository.add(appointment);
+                    open.add(appointment);
+                    bookings++;
+                }
+
+                // Cancelamentos e remarcações entre as consultas ainda pendentes
+                for (int i = 0; i < bookingsPerHour / 10 && !open.isEmpty(); i++) {
+                    int index = random.nextInt(open.size());
+                    Appointment appointment = open.get(index);
+                    open.set(index, open.get(open.size() - 1));
+                    open.remove(open.size() - 1);
+                    if (!appointment.isPending()) {
+                        continue;
+                    }
+                    if (random.nextBoolean()) {
+                        repository.updateStatus(appointment, AppointmentStatus.CANCELLED);
+                        cancellations++;
+                    } else {
+                        List<LocalDateTime> slots = repository.findNextFreeSlots(appointment.getDoctorCRM(),
+                                now.plusDays(1 + random.nextInt(14)), 1);
+                        if (!slots.isEmpty()) {
+                            Appointment moved = new Appointment(slots.get(0).toLocalDate(), slots.get(0).toLocalTime(),
+                                    appointment.getPatientCPF(), appointment.getDoctorCRM(), AppointmentStatus.PENDING);
+                            repository.replace(appointment, moved);
+                            open.add(moved);
+                            reschedules++;
+                        }
+                    }
+                }
+
+                clock.advance(Duration.ofHours(1));
+                completions += scheduler.advance();
+            }
+            double seconds = (System.nanoTime() - t0) / 1e9;
+
+            System.out.printf("%d meses virtuais em %.1f s (%d médicos)%n", months, seconds, doctors);
+            System.out.printf("  Marcações: %,d | cancelamentos: %,d | remarcações: %,d | realizadas: %,d%n",
+                    bookings, cancellations, reschedules, completions);
+            System.out.printf("  Aguardando término: %,d%n", scheduler.getScheduledCount());
+            verify(repository, clock.now());
+        } finally {
+            AppClock.reset();
+        }
+    }
+
+    private static void verify(AppointmentRepository repository, LocalDateTime now) {
+        Map<String, List<Appointment>> pendingByDoctor = new HashMap<>();
+        for (Appointment appointment : repository.getAll()) {
+            if (!appointment.isPending()) {
+                continue;
+            }
+            LocalDateTime start = LocalDateTime.of(appointment.getDate(), appointment.getTime());
+            if (!start.plusMinutes(appointment.getDurationMinutes()).isAfter(now)) {
+                throw new IllegalStateException("Consulta terminada ainda pendente: " + appointment);
+            }
+            pendingByDoctor.computeIfAbsent(appointment.getDoctorCRM(), k -> new ArrayList<>()).add(appointment);
+        }
+        for (List<Appointment> list : pendingByDoctor.values()) {
+            list.sort((a, b) -> LocalDateTime.of(a.getDate(), a.getTime()).compareTo(LocalDateTime.of(b.getDate(), b.getTime())));
+            for (int i = 1; i < list.size(); i++) {
+                Appointment previous = list.get(i - 1);
+                if (list.get(i).overlaps(LocalDateTime.of(previous.getDate(), previous.getTime()),
+                        previous.getDurationMinutes())) {
+                    throw new IllegalStateException("Consultas sobrepostas: " + previous + " e " + list.get(i));
+                }
+            }
+        }
+        System.out.println("  Verificação: nenhuma consulta terminada pendente, nenhuma sobreposição");
+    }
+
+    /**
+     * Relógio virtual, avançado manualmente pela simulação
+     */
+    private static final class VirtualClock extends Clock {
+        private final ZoneId zone;
+        // Compartilhado com as cópias criadas por withZone, que avançam junto
+        private final AtomicReference<Instant> instant;
+
+        VirtualClock(LocalDateTime start) {
+            this(new AtomicReference<>(start.toInstant(ZoneOffset.UTC)), ZoneOffset.UTC);
+        }
+
+        private VirtualClock(AtomicReference<Instant> instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        void advance(Duration duration) {
+            instant.updateAndGet(current -> current.plus(duration));
+        }
+
+        LocalDateTime now() {
+            return LocalDateTime.ofInstant(instant.get(), zone);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return zone.equals(this.zone) ? this : new VirtualClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant.get();
+        }
+    }
+}
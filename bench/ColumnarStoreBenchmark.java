@@ -0,0 +1,105 @@
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara a memória ocupada e o tempo das buscas por varredura entre uma
+ * lista de objetos {@link Appointment} e o {@link ColumnarAppointmentStore}.
+ *
+ * Uso: java -Xmx4g ColumnarStoreBenchmark [consultas]
+ */
+public class ColumnarStoreBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random random = new Random(42);
+        LocalDate base = LocalDate.of(2020, 1, 1);
+
+        long before = usedMemory();
+        List<Appointment> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            objects.add(new Appointment(base.plusDays(random.nextInt(3650)),
+                    LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4)),
+                    String.format("%011d", 10_000_000_000L + random.nextInt(200_000)),
+                    String.valueOf(10_000 + random.nextInt(500)),
+                    AppointmentStatus.values()[random.nextInt(3)]));
+        }
+        long objectBytes = usedMemory() - before;
+
+        before = usedMemory();
+        ColumnarAppointmentStore store = new ColumnarAppointmentStore(count);
+        for (Appointment appointment : objects) {
+            store.add(appointment);
+        }
+        long columnBytes = usedMemory() - before;
+
+        System.out.printf("%,d consultas%n", count);
+        System.out.printf("  Objetos:  %,8d MB (%d bytes/consulta)%n", objectBytes >> 20, objectBytes / count);
+        System.out.printf("  Colunar:  %,8d MB (%d bytes/consulta)%n", columnBytes >> 20, columnBytes / count);
+
+        String cpf = objects.get(0).getPatientCPF();
+        String crm = objects.get(0).getDoctorCRM();
+        LocalDate start = base.plusDays(100);
+        LocalDate end = start.plusDays(6);
+
+        // Mesmo resultado nas duas representações
+        check(filterObjects(objects, cpf, null, null, null, false), store.findByPatient(cpf, false));
+        check(filterObjects(objects, null, crm, null, null, true), store.findByDoctor(crm, true));
+        List<Appointment> period = filterObjects(objects, null, null, start, end, false);
+        period.sort((a, b) -> a.getDate().atTime(a.getTime()).compareTo(b.getDate().atTime(b.getTime())));
+        check(period, store.findInPeriod(start, end, false));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            int found = filterObjects(objects, cpf, null, null, null, false).size()
+                    + filterObjects(objects, null, crm, null, null, true).size()
+                    + filterObjects(objects, null, null, start, end, false).size();
+            long t1 = System.nanoTime();
+            int foundColumnar = store.findByPatient(cpf, false).size()
+                    + store.findByDoctor(crm, true).size()
+                    + store.findInPeriod(start, end, false).size();
+            long t2 = System.nanoTime();
+            System.out.printf("Rodada %d: objetos %7.1f ms | colunar %7.1f ms (%d consultas encontradas)%n",
+                    round, (t1 - t0) / 1e6, (t2 - t1) / 1e6, foundColumnar);
+            if (found != foundColumnar) {
+                throw new IllegalStateException("Resultados diferentes: " + found + " x " + foundColumnar);
+            }
+        }
+    }
+
+    private static List<Appointment> filterObjects(List<Appointment> appointments, String cpf, String crm,
+                                                   LocalDate start, LocalDate end, boolean pendingOnly) {
+        List<Appointment> result = new ArrayList<>();
+        for (Appointment app : appointments) {
+            if (cpf != null && !app.getPatientCPF().equals(cpf)) continue;
+            if (crm != null && !app.getDoctorCRM().equals(crm)) continue;
+            if (start != null && !app.isInPeriod(start, end)) continue;
+            if (pendingOnly && !app.isPending()) continue;
+            result.add(app);
+        }
+        return result;
+    }
+
+    private static void check(List<Appointment> expected, List<Appointment> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Tamanhos diferentes: " + expected.size() + " x " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).toCSVFormat().equals(actual.get(i).toCSVFormat())) {
+                throw new IllegalStateException("Consulta diferente: " + expected.get(i) + " x " + actual.get(i));
+            }
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,316 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gera arquivos de médicos, pacientes e consultas consistentes entre si
+ * (toda consulta aponta para um médico e um paciente gerados) para testes de
+ * escala, no formato lido pela aplicação.
+ *
+ * <ul>
+ *   <li>CPFs de 11 dígitos com dígitos verificadores válidos, distintos entre
+ *   os pacientes; CRMs numéricos distintos.</li>
+ *   <li>Consultas em dias úteis (sábado com metade do movimento, sem
+ *   domingo), das 08:00 às 17:45 em intervalos de 15 minutos, quase todas de
+ *   30 minutos.</li>
+ *   <li>Status conforme a data em relação a "hoje" (--today): no passado,
+ *   quase todas realizadas e algumas canceladas ou ainda pendentes; no
+ *   futuro, pendentes e algumas canceladas.</li>
+ *   <li>Concentração configurável: médicos e pacientes são sorteados por uma
+ *   distribuição de Zipf (expoente 0 = uniforme), o que cria médicos e
+ *   pacientes muito mais procurados que os demais.</li>
+ * </ul>
+ *
+ * Com a mesma semente e os mesmos parâmetros, os arquivos gerados são
+ * idênticos. Cada linha é escrita assim que é sorteada: a memória usada não
+ * depende do número de consultas (até 100 milhões ou mais) nem do número de
+ * pacientes. Horários de um mesmo médico podem se sobrepor, pois evitar isso
+ * exigiria guardar a agenda de todos os médicos.
+ *
+ * Uso: java DatasetGenerator [opções]
+ * <pre>
+ *   --out dados-gerados         diretório de saída (appointments.csv, patients.csv, doctors_clean.csv)
+ *   --doctors 1000 --patients 100000 --appointments 1000000
+ *   --seed 42
+ *   --doctor-skew 1.0           expoente de Zipf para os médicos (0 = uniforme)
+ *   --patient-skew 0.5          expoente de Zipf para os pacientes
+ *   --from 2020-01-01 --to 2027-12-31 --today 2026-01-01
+ * </pre>
+ */
+public class DatasetGenerator {
+
+    private static final String[] FEMALE_NAMES = {
+            "Ana", "Beatriz", "Carla", "Débora", "Eduarda", "Fernanda", "Gabriela", "Helena", "Isabela", "Juliana",
+            "Larissa", "Natália", "Paula", "Sofia", "Vitória"};
+    private static final String[] MALE_NAMES = {
+            "Bruno", "Caio", "Daniel", "Enzo", "Felipe", "Gustavo", "Henrique", "Igor", "João", "Lucas",
+            "Marcos", "Otávio", "Rafael", "Thiago", "William"};
+    private static final String[] LAST_NAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Ferreira", "Costa", "Rodrigues", "Almeida",
+            "Nascimento", "Carvalho", "Gomes", "Martins", "Araújo", "Ribeiro", "Barros", "Rocha", "Dias", "Moreira"};
+    private static final int[] DURATIONS = {15, 30, 30, 30, 30, 30, 30, 45, 60};
+
+    // Permutação dos 10^9 números-base de CPF (multiplicador primo com 10^9), para CPFs distintos sem guardá-los
+    private static final long CPF_BASES = 1_000_000_000L;
+    private static final long CPF_MULTIPLIER = 738_235_933L;
+    private static final long CPF_OFFSET = 104_729_311L;
+    private static final int FIRST_CRM = 10_000;
+    private static final int SLOTS_PER_DAY = 40;
+    private static final int PROGRESS_ROWS = 10_000_000;
+
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get("dados-gerados");
+        int doctors = 1_000;
+        long patients = 100_000;
+        long appointments = 1_000_000;
+        long seed = 42;
+        double doctorSkew = 1.0;
+        double patientSkew = 0.5;
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2027, 12, 31);
+        LocalDate today = LocalDate.of(2026, 1, 1);
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--out": out = Paths.get(value); break;
+                case "--doctors": doctors = Integer.parseInt(value); break;
+                case "--patients": patients = Long.parseLong(value); break;
+                case "--appointments": appointments = Long.parseLong(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--doctor-skew": doctorSkew = Double.parseDouble(value); break;
+                case "--patient-skew": patientSkew = Double.parseDouble(value); break;
+                case "--from": from = LocalDate.parse(value); break;
+                case "--to": to = LocalDate.parse(value); break;
+                case "--today": today = LocalDate.parse(value); break;
+                default:
+                    System.out.println("Opção desconhecida: " + args[i]);
+                    return;
+            }
+        }
+        if (doctors < 1 || patients < 1 || patients > CPF_BASES - 10 || to.isBefore(from)) {
+            System.out.println("Parâmetros inválidos (médicos e pacientes >= 1, pacientes < 999.999.990, --to >= --from).");
+            return;
+        }
+
+        Files.createDirectories(out);
+        long t0 = System.nanoTime();
+        writeDoctors(out.resolve("doctors_clean.csv"), doctors, new SplittableRandom(seed));
+        writePatients(out.resolve("patients.csv"), patients, new SplittableRandom(seed + 1));
+        writeAppointments(out.resolve("appointments.csv"), appointments, doctors, patients,
+                doctorSkew, patientSkew, from, to, today, new SplittableRandom(seed + 2));
+
+        System.out.printf("%,d médicos, %,d pacientes e %,d consultas gerados em %s (%.1f s, %.1f MB)%n",
+                doctors, patients, appointments, out.toAbsolutePath(), (System.nanoTime() - t0) / 1e9,
+                (Files.size(out.resolve("appointments.csv")) + Files.size(out.resolve("patients.csv"))
+                        + Files.size(out.resolve("doctors_clean.csv"))) / 1_048_576.0);
+    }
+
+    private static void writeDoctors(Path file, int doctors, SplittableRandom random) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Nome,CRM\n");
+            StringBuilder line = new StringBuilder(64);
+            for (int i = 0; i < doctors; i++) {
+                line.setLength(0);
+                boolean female = random.nextBoolean();
+                line.append(female ? "Dra. " : "Dr. ");
+                appendName(line, female, random).append(',').append(crm(i)).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    private static void writePatients(Path file, long patients, SplittableRandom random) throws IOException {
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("Nome,CPF\n");
+            StringBuilder line = new StringBuilder(64);
+            for (long i = 0; i < patients; i++) {
+                line.setLength(0);
+                appendName(line, random.nextBoolean(), random).append(',').append(cpf(i)).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    private static void writeAppointments(Path file, long appointments, int doctors, long patients,
+                                          double doctorSkew, double patientSkew, LocalDate from, LocalDate to,
+                                          LocalDate today, SplittableRandom random) throws IOException {
+        // Dias de atendimento (sábado aparece uma vez, os dias úteis duas, para ter metade do movimento)
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(day);
+                if (day.getDayOfWeek() != DayOfWeek.SATURDAY) {
+                    days.add(day);
+                }
+            }
+        }
+        if (days.isEmpty()) {
+            days.add(from);
+        }
+        String[] dayText = new String[days.size()];
+        boolean[] past = new boolean[days.size()];
+        for (int i = 0; i < dayText.length; i++) {
+            dayText[i] = days.get(i).toString();
+            past[i] = days.get(i).isBefore(today);
+        }
+        String[] slotText = new String[SLOTS_PER_DAY];
+        for (int i = 0; i < SLOTS_PER_DAY; i++) {
+            slotText[i] = String.format("%02d:%02d", 8 + i / 4, 15 * (i % 4));
+        }
+        String[] crms = new String[doctors];
+        for (int i = 0; i < doctors; i++) {
+            crms[i] = String.valueOf(crm(i));
+        }
+
+        ZipfSampler doctorSampler = new ZipfSampler(doctors, doctorSkew);
+        ZipfSampler patientSampler = new ZipfSampler(patients, patientSkew);
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write(Appointment.CSV_HEADER + "\n");
+            StringBuilder line = new StringBuilder(80);
+            for (long id = 1; id <= appointments; id++) {
+                int day = random.nextInt(dayText.length);
+                line.setLength(0);
+                line.append(dayText[day]).append(',')
+                        .append(slotText[random.nextInt(SLOTS_PER_DAY)]).append(',')
+                        .append(cpf(patientSampler.sample(random) - 1)).append(',')
+                        .append(crms[(int) doctorSampler.sample(random) - 1]).append(',')
+                        .append(status(past[day], random).name()).append(',')
+                        .append(id).append(',')
+                        .append(DURATIONS[random.nextInt(DURATIONS.length)]).append('\n');
+                writer.append(line);
+                if (id % PROGRESS_ROWS == 0) {
+                    System.out.printf("  %,d consultas...%n", id);
+                }
+            }
+        }
+    }
+
+    private static AppointmentStatus status(boolean past, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (past) {
+            // Passado: 85% realizadas, 12% canceladas, 3% ainda pendentes (não atualizadas)
+            return roll < 85 ? AppointmentStatus.COMPLETED : roll < 97 ? AppointmentStatus.CANCELLED : AppointmentStatus.PENDING;
+        }
+        return roll < 90 ? AppointmentStatus.PENDING : AppointmentStatus.CANCELLED;
+    }
+
+    private static StringBuilder appendName(StringBuilder sb, boolean female, SplittableRandom random) {
+        String[] firstNames = female ? FEMALE_NAMES : MALE_NAMES;
+        return sb.append(firstNames[random.nextInt(firstNames.length)]).append(' ')
+                .append(LAST_NAMES[random.nextInt(LAST_NAMES.length)]).append(' ')
+                .append(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+    }
+
+    private static int crm(int index) {
+        return FIRST_CRM + index;
+    }
+
+    /**
+     * CPF do paciente de índice informado: base de 9 dígitos tirada de uma
+     * permutação (distinta para cada índice) mais os dois dígitos verificadores
+     */
+    static String cpf(long index) {
+        long base = cpfBase(index);
+        if (base % 111_111_111L == 0) {
+            // Nove dígitos iguais (CPF inválido): usa uma das últimas bases, que nenhum paciente usa
+            base = cpfBase(CPF_BASES - 1 - base / 111_111_111L);
+        }
+        char[] digits = new char[11];
+        int sum1 = 0;
+        int sum2 = 0;
+        for (int i = 8; i >= 0; i--) {
+            int digit = (int) (base % 10);
+            base /= 10;
+            digits[i] = (char) ('0' + digit);
+            sum1 += digit * (10 - i);
+            sum2 += digit * (11 - i);
+        }
+        int check1 = sum1 % 11 < 2 ? 0 : 11 - sum1 % 11;
+        sum2 += check1 * 2;
+        int check2 = sum2 % 11 < 2 ? 0 : 11 - sum2 % 11;
+        digits[9] = (char) ('0' + check1);
+        digits[10] = (char) ('0' + check2);
+        return new String(digits);
+    }
+
+    private static long cpfBase(long index) {
+        return (index * CPF_MULTIPLIER + CPF_OFFSET) % CPF_BASES;
+    }
+
+    /**
+     * Sorteio de 1..n pela distribuição de Zipf (probabilidade de k proporcional
+     * a 1/k^s), pelo método de rejeição-inversão de Hörmann e Derflinger:
+     * memória constante, sem tabela de probabilidades acumuladas.
+     */
+    static final class ZipfSampler {
+        private final long n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        ZipfSampler(long n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        }
+
+        long sample(SplittableRandom random) {
+            if (exponent <= 0) {
+                return 1 + random.nextLong(n);
+            }
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                long k = (long) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1 - exponent);
+            if (t < -1) {
+                t = -1;
+            }
+            return Math.exp(helper1(t) * x);
+        }
+
+        // log(1 + x) / x, estável perto de 0
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        // (e^x - 1) / x, estável perto de 0
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mede a busca dos primeiros horários livres da clínica
+ * ({@link DoctorCalendar#earliestFreeSlots}) com muitos médicos e agendas
+ * quase lotadas, comparando com a abordagem de buscar os horários de cada
+ * médico e ordenar tudo no final. Usa a agenda diretamente, sem o
+ * repositório, para caber meses de consultas de milhares de médicos.
+ *
+ * Uso: java -Xmx4g FreeSlotBenchmark [médicos] [dias] [ocupação %]
+ */
+public class FreeSlotBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int COUNT = 10;
+    private static final int DURATION = Appointment.DEFAULT_DURATION_MINUTES;
+    private static final LocalTime[] TIMES = new LocalTime[40];
+
+    static {
+        for (int slot = 0; slot < TIMES.length; slot++) {
+            TIMES[slot] = LocalTime.of(8 + slot / 4, 15 * (slot % 4));
+        }
+    }
+
+    public static void main(String[] args) {
+        int doctors = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int occupancy = args.length > 2 ? Integer.parseInt(args[2]) : 95;
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2030, 1, 1);
+
+        List<String> crms = new ArrayList<>(doctors);
+        DoctorCalendar calendar = new DoctorCalendar();
+        long booked = 0;
+        long t0 = System.nanoTime();
+        for (int d = 0; d < doctors; d++) {
+            String crm = String.valueOf(10_000 + d);
+            crms.add(crm);
+            for (int day = 0; day < days; day++) {
+                LocalDate date = start.plusDays(day);
+                for (int slot = 0; slot < 40; slot++) { // 08:00 às 18:00 em faixas de 15 minutos
+                    if (random.nextInt(100) < occupancy) {
+                        calendar.book(new Appointment(date, TIMES[slot], "12345678901", crm,
+                                AppointmentStatus.PENDING, 15));
+                        booked++;
+                    }
+                }
+            }
+        }
+        System.out.printf("%,d médicos, %,d consultas pendentes (%.1f s para montar)%n",
+                doctors, booked, (System.nanoTime() - t0) / 1e9);
+
+        LocalDateTime from = start.atTime(8, 0);
+        for (int round = 1; round <= ROUNDS; round++) {
+            long t1 = System.nanoTime();
+            List<FreeSlot> merged = calendar.earliestFreeSlots(crms, from, COUNT, DURATION);
+            long t2 = System.nanoTime();
+            List<LocalDateTime> naive = new ArrayList<>();
+            for (String crm : crms) {
+                naive.addAll(calendar.nextFreeSlots(crm, from, COUNT, DURATION));
+            }
+            naive.sort(null);
+            long t3 = System.nanoTime();
+
+            for (int i = 0; i < merged.size(); i++) {
+                if (!merged.get(i).getDateTime().equals(naive.get(i))) {
+                    throw new IllegalStateException("Horário diferente na posição " + i);
+                }
+            }
+            System.out.printf("Rodada %d: fila de prioridade %7.2f ms | por médico e ordenação %7.2f ms (primeiro: %s)%n",
+                    round, (t2 - t1) / 1e6, (t3 - t2) / 1e6, merged.isEmpty() ? "-" : merged.get(0).getDateTime());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Compara a vazão do carregamento de consultas via Scanner + split + regex
+ * (implementação original) com o {@link MappedCsvLoader}, em modo sequencial
+ * e paralelo (uma thread por processador).
+ *
+ * Uso: java LoaderBenchmark [arquivo.csv | número de linhas]
+ * Sem argumentos, gera um arquivo temporário com 1.000.000 de consultas.
+ */
+public class LoaderBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        Path file;
+        boolean temporary = false;
+        if (args.length > 0 && new File(args[0]).exists()) {
+            file = new File(args[0]).toPath();
+        } else {
+            int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+            file = Files.createTempFile("appointments-bench", ".csv");
+            temporary = true;
+            generate(file, rows);
+        }
+
+        long bytes = Files.size(file);
+        System.out.printf("Arquivo: %s (%.1f MB)%n", file, bytes / 1_048_576.0);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Appointment> expected = ScannerLoader.loadAppointments(file.toString());
+        System.out.println("Resultados idênticos (sequencial): " +
+                sameContent(expected, MappedCsvLoader.loadAppointmentsSequential(file.toString())));
+        System.out.println("Resultados idênticos (paralelo, " + threads + " threads): " +
+                sameContent(expected, MappedCsvLoader.loadAppointmentsParallel(file.toString(), threads)));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long scannerNanos = time(() -> ScannerLoader.loadAppointments(file.toString()));
+            long mappedNanos = time(() -> MappedCsvLoader.loadAppointmentsSequential(file.toString()));
+            long parallelNanos = time(() -> MappedCsvLoader.loadAppointmentsParallel(file.toString(), threads));
+            System.out.printf("Rodada %d:%n  Scanner    %s%n  Mapeado    %s | %.1fx%n  Paralelo   %s | %.1fx%n", round,
+                    throughput(expected.size(), bytes, scannerNanos),
+                    throughput(expected.size(), bytes, mappedNanos), (double) scannerNanos / mappedNanos,
+                    throughput(expected.size(), bytes, parallelNanos), (double) scannerNanos / parallelNanos);
+        }
+
+        if (temporary) {
+            Files.delete(file);
+        }
+    }
+
+    private interface Load {
+        List<Appointment> run() throws IOException;
+    }
+
+    private static long time(Load load) throws IOException {
+        long start = System.nanoTime();
+        List<Appointment> result = load.run();
+        long elapsed = System.nanoTime() - start;
+        if (result.isEmpty()) {
+            System.out.println("(nenhuma consulta carregada)");
+        }
+        return elapsed;
+    }
+
+    private static String throughput(int rows, long bytes, long nanos) {
+        double seconds = nanos / 1e9;
+        return String.format("%7.0f ms, %6.2f M linhas/s, %6.1f MB/s",
+                nanos / 1e6, rows / seconds / 1e6, bytes / seconds / 1_048_576.0);
+    }
+
+    private static boolean sameContent(List<Appointment> a, List<Appointment> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).toCSVFormat().equals(b.get(i).toCSVFormat())) return false;
+        }
+        return true;
+    }
+
+    static void generate(Path file, int rows) throws IOException {
+        Random random = new Random(42);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Data,Horario,CPF_Paciente,CRM_Medico,Status");
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                LocalDate date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(11_000));
+                LocalTime time = LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4));
+                writer.write(String.format("%s,%s,%011d,%d,%s", date, time,
+                        (long) (random.nextDouble() * 99_999_999_999L), 10_000 + random.nextInt(90_000),
+                        statuses[random.nextInt(statuses.length)].name()));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Cópia do carregamento original (Scanner + split + regex), usada como referência
+     */
+    static final class ScannerLoader {
+        static List<Appointment> loadAppointments(String filename) throws IOException {
+            List<Appointment> appointments = new ArrayList<>();
+            try (Scanner scanner = new Scanner(new File(filename), StandardCharsets.UTF_8)) {
+                if (scanner.hasNextLine()) scanner.nextLine();
+                while (scanner.hasNextLine()) {
+                    String line = scanner.nextLine().trim();
+                    if (line.isEmpty()) continue;
+                    Appointment ap = parseLine(line);
+                    if (ap != null) {
+                        appointments.add(ap);
+                    }
+                }
+            }
+            return appointments;
+        }
+
+        private static Appointment parseLine(String line) {
+            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            String[] parts = line.split(",");
+            if (parts.length < 4) return null;
+            String cpf = parts[2].trim();
+            String crm = parts[3].trim();
+            if (!cpf.matches("\\d{11}") || !crm.matches("\\d+")) {
+                return null;
+            }
+            try {
+                LocalDate date = LocalDate.parse(parts[0].trim(), dateFormatter);
+                LocalTime time = LocalTime.parse(parts[1].trim(), timeFormatter);
+                AppointmentStatus status = AppointmentStatus.PENDING;
+                if (parts.length >= 5) {
+                    try {
+                        status = AppointmentStatus.valueOf(parts[4].trim());
+                    } catch (IllegalArgumentException e) {
+                        // mantém o padrão
+                    }
+                }
+                return new Appointment(date, time, cpf, crm, status);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
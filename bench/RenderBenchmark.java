@@ -0,0 +1,113 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Compara o tempo de escrever uma listagem de consultas (linha do histórico
+ * do médico: data/hora, paciente e CPF) linha a linha com
+ * {@code println} e formatadores criados a cada chamada, como as telas
+ * faziam, com o {@link ListRenderer}, escrevendo uma página por vez.
+ *
+ * A saída vai para um {@link PrintStream} com descarga automática, como o
+ * {@code System.out}, sobre um destino que só calcula o CRC do texto, para
+ * conferir que as duas formas escrevem exatamente o mesmo texto.
+ *
+ * Uso: java RenderBenchmark [linhas] [linhas por página]
+ */
+public class RenderBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Random random = new Random(42);
+        LocalDate base = LocalDate.of(2020, 1, 1);
+
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            appointments.add(new Appointment(base.plusDays(random.nextInt(3650)),
+                    LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4)),
+                    String.format("%011d", 10_000_000_000L + random.nextInt(200_000)),
+                    String.valueOf(10_000 + random.nextInt(500)),
+                    AppointmentStatus.COMPLETED));
+        }
+
+        System.out.printf("%,d linhas, páginas de %d%n", count, pageSize);
+        for (int round = 1; round <= ROUNDS; round++) {
+            CrcOutputStream lineSink = new CrcOutputStream();
+            long t0 = System.nanoTime();
+            renderLineByLine(appointments, new PrintStream(lineSink, true, StandardCharsets.UTF_8));
+            long lineNanos = System.nanoTime() - t0;
+
+            CrcOutputStream pageSink = new CrcOutputStream();
+            t0 = System.nanoTime();
+            renderPages(appointments, pageSize, new PrintStream(pageSink, true, StandardCharsets.UTF_8));
+            long pageNanos = System.nanoTime() - t0;
+
+            if (lineSink.crc.getValue() != pageSink.crc.getValue() || lineSink.bytes != pageSink.bytes) {
+                throw new IllegalStateException("Textos diferentes nas duas formas");
+            }
+            System.out.printf("Rodada %d: println por linha %,6d ms (%,d escritas) | ListRenderer %,6d ms (%,d escritas), %,d MB%n",
+                    round, lineNanos / 1_000_000, lineSink.writes, pageNanos / 1_000_000, pageSink.writes,
+                    pageSink.bytes >> 20);
+        }
+    }
+
+    /**
+     * Forma anterior: formatadores novos e uma escrita por linha
+     */
+    private static void renderLineByLine(List<Appointment> appointments, PrintStream out) {
+        for (Appointment ap : appointments) {
+            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            String dateTime = ap.getDate().format(dateFormatter) + " às " + ap.getTime().format(timeFormatter);
+            out.println(dateTime + " - Paciente: " + "Paciente " + ap.getDoctorCRM() +
+                    " (CPF: " + UIUtils.formatCPF(ap.getPatientCPF()) + ")");
+        }
+    }
+
+    private static void renderPages(List<Appointment> appointments, int pageSize, PrintStream out) {
+        ListRenderer renderer = new ListRenderer(out);
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment ap = appointments.get(i);
+            renderer.appendDateTime(ap.getDate(), ap.getTime())
+                    .append(" - Paciente: ").append("Paciente ").append(ap.getDoctorCRM())
+                    .append(" (CPF: ").appendCPF(ap.getPatientCPF()).append(')').newLine();
+            if ((i + 1) % pageSize == 0) {
+                renderer.flush();
+            }
+        }
+        renderer.flush();
+    }
+
+    /**
+     * Destino que descarta o texto, guardando só o CRC, o tamanho e o número de escritas
+     */
+    private static final class CrcOutputStream extends OutputStream {
+        final CRC32 crc = new CRC32();
+        long bytes;
+        long writes;
+
+        @Override
+        public void write(int b) {
+            crc.update(b);
+            bytes++;
+            writes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            crc.update(b, off, len);
+            bytes += len;
+            writes++;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compara o tempo de inicialização lendo o CSV de consultas com o tempo de
+ * leitura do {@link BinarySnapshot}, e confere se o conteúdo é o mesmo.
+ * Deve ser executado na pasta do projeto (usa patients.csv e doctors_clean.csv).
+ *
+ * Uso: java SnapshotBenchmark [número de consultas]
+ */
+public class SnapshotBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("snapshot-bench");
+        String csv = dir.resolve("appointments.csv").toString();
+        String journal = dir.resolve("appointments.journal").toString();
+        String snapshotFile = dir.resolve("medapp.snapshot").toString();
+        LoaderBenchmark.generate(dir.resolve("appointments.csv"), rows);
+
+        List<Patient> patients = Patient.loadFromCSV("patients.csv");
+        AppointmentRepository repository = AppointmentRepository.open(csv, journal);
+        BinarySnapshot.write(snapshotFile, "patients.csv", patients, FileStamp.of("patients.csv"), repository);
+        repository.closeJournal();
+        System.out.printf("%,d consultas: CSV %.1f MB, snapshot %.1f MB%n", rows,
+                Files.size(dir.resolve("appointments.csv")) / 1_048_576.0,
+                Files.size(dir.resolve("medapp.snapshot")) / 1_048_576.0);
+
+        List<Appointment> fromCsv = Appointment.loadFromCSV(csv);
+        List<Appointment> fromSnapshot = BinarySnapshot.read(snapshotFile).getAppointments(csv);
+        boolean same = fromCsv.size() == fromSnapshot.size();
+        for (int i = 0; same && i < fromCsv.size(); i++) {
+            same = fromCsv.get(i).toCSVFormat().equals(fromSnapshot.get(i).toCSVFormat());
+        }
+        System.out.println("Resultados idênticos: " + same);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            int csvCount = Appointment.loadFromCSV(csv).size();
+            long t1 = System.nanoTime();
+            int snapshotCount = BinarySnapshot.read(snapshotFile).getAppointments(csv).size();
+            long t2 = System.nanoTime();
+            System.out.printf("Rodada %d: CSV %7.1f ms | snapshot %7.1f ms | %.1fx (%d/%d)%n", round,
+                    (t1 - t0) / 1e6, (t2 - t1) / 1e6, (double) (t1 - t0) / (t2 - t1), csvCount, snapshotCount);
+        }
+
+        for (String file : new String[]{csv, journal, snapshotFile}) {
+            Files.deleteIfExists(Path.of(file));
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import medapp.jmh.CoreOperations;
+
+/**
+ * Implementação das {@link CoreOperations} no pacote padrão, com acesso às
+ * classes da aplicação.
+ *
+ * Para cada tamanho N são geradas N consultas e N/10 pacientes, sempre com
+ * a mesma semente: consultas em 2030 e 2031, das 8h às 17h45 em passos de 15
+ * minutos, de 500 médicos, com um quarto delas já realizadas.
+ */
+public class CoreOperationsImpl implements CoreOperations {
+
+    private static final int DOCTORS = 500;
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private final Random random = new Random(42);
+    private final List<Path> files = new ArrayList<>();
+
+    private List<Patient> patients;
+    private List<Appointment> appointments;
+    private String appointmentFile;
+    private String patientFile;
+    private String outputFile;
+    private String cpf;
+
+    private AppointmentRepository repository;
+    private String[] crms;
+    private LocalDate[] dates;
+    private LocalTime[] times;
+
+    @Override
+    public void prepareFiles(int size) throws IOException {
+        generate(size);
+        appointmentFile = createFile("bench-appointments");
+        patientFile = createFile("bench-patients");
+        Appointment.saveAppointmentsToCSV(appointments, appointmentFile);
+        writePatients(patientFile);
+        patients = null;
+        appointments = null;
+    }
+
+    @Override
+    public void prepareLists(int size) throws IOException {
+        generate(size);
+        cpf = patients.get(patients.size() / 2).getCpf();
+        outputFile = createFile("bench-save");
+    }
+
+    @Override
+    public void prepareRepository(int size, int probes) {
+        generate(size);
+        repository = new AppointmentRepository(appointments);
+        patients = null;
+        appointments = null;
+        crms = new String[probes];
+        dates = new LocalDate[probes];
+        times = new LocalTime[probes];
+        for (int i = 0; i < probes; i++) {
+            crms[i] = String.valueOf(10_000 + random.nextInt(DOCTORS));
+            dates[i] = BASE.plusDays(random.nextInt(730));
+            times[i] = LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4));
+        }
+    }
+
+    @Override
+    public void cleanUp() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        files.clear();
+    }
+
+    @Override
+    public Object loadAppointments() {
+        return Appointment.loadFromCSV(appointmentFile);
+    }
+
+    @Override
+    public Object loadPatients() {
+        return Patient.loadFromCSV(patientFile);
+    }
+
+    @Override
+    public Object associate() {
+        return Main.associateAppointmentsToPatients(patients, appointments);
+    }
+
+    @Override
+    public Object filterByPatient() {
+        return Appointment.filterByPatient(appointments, cpf);
+    }
+
+    @Override
+    public boolean hasConflict(int probe) {
+        return repository.hasConflict(crms[probe], dates[probe], times[probe], null);
+    }
+
+    @Override
+    public void save() throws IOException {
+        Appointment.saveAppointmentsToCSV(appointments, outputFile);
+    }
+
+    private void generate(int size) {
+        int patientCount = Math.max(1, size / 10);
+        patients = new ArrayList<>(patientCount);
+        for (int i = 0; i < patientCount; i++) {
+            patients.add(new Patient("Paciente " + i, String.format("%011d", 10_000_000_000L + i)));
+        }
+        appointments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            appointments.add(new Appointment(BASE.plusDays(random.nextInt(730)),
+                    LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4)),
+                    patients.get(random.nextInt(patientCount)).getCpf(),
+                    String.valueOf(10_000 + random.nextInt(DOCTORS)),
+                    random.nextInt(4) == 0 ? AppointmentStatus.COMPLETED : AppointmentStatus.PENDING));
+        }
+    }
+
+    private String createFile(String prefix) throws IOException {
+        Path file = Files.createTempFile(prefix, ".csv");
+        files.add(file);
+        return file.toString();
+    }
+
+    private void writePatients(String file) throws IOException {
+        Set<String> written = new HashSet<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8)) {
+            writer.write("Nome,CPF");
+            writer.newLine();
+            for (Patient patient : patients) {
+                if (written.add(patient.getCpf())) {
+                    writer.write(patient.getName() + "," + patient.getCpf());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
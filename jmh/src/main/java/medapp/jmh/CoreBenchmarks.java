@@ -0,0 +1,144 @@
+package medapp.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks dos caminhos principais, em vários tamanhos de entrada:
+ * <ul>
+ *   <li>carga de consultas e de pacientes (Appointment.loadFromCSV, Patient.loadFromCSV);</li>
+ *   <li>associação de consultas a pacientes (Main.associateAppointmentsToPatients);</li>
+ *   <li>filtro de consultas por paciente (Appointment.filterByPatient);</li>
+ *   <li>verificação de conflito de horário do agendamento (por verificação);</li>
+ *   <li>gravação do CSV de consultas (Appointment.saveAppointmentsToCSV).</li>
+ * </ul>
+ * Para cada tamanho N são geradas N consultas e N/10 pacientes. O tamanho
+ * 10000000 precisa de cerca de 8 GB de heap; para medir só os menores:
+ * <pre>
+ *     ./gradlew :jmh:benchmarksJar
+ *     java -jar jmh/build/libs/benchmarks.jar -p size=1000,100000 -rf csv -rff resultados.csv
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class CoreBenchmarks {
+
+    private static final int CONFLICT_PROBES = 1024;
+
+    /**
+     * Tamanho da entrada, comum a todas as medidas
+     */
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int size;
+    }
+
+    /**
+     * CSVs de consultas e de pacientes, para as medidas de carga
+     */
+    @State(Scope.Benchmark)
+    public static class Files {
+        CoreOperations operations;
+
+        @Setup(Level.Trial)
+        public void setUp(Size size) throws IOException, ReflectiveOperationException {
+            operations = CoreOperations.create();
+            operations.prepareFiles(size.size);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            operations.cleanUp();
+        }
+    }
+
+    /**
+     * Consultas e pacientes em memória
+     */
+    @State(Scope.Benchmark)
+    public static class Lists {
+        CoreOperations operations;
+
+        @Setup(Level.Trial)
+        public void setUp(Size size) throws IOException, ReflectiveOperationException {
+            operations = CoreOperations.create();
+            operations.prepareLists(size.size);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            operations.cleanUp();
+        }
+    }
+
+    /**
+     * Repositório de consultas e horários a verificar
+     */
+    @State(Scope.Benchmark)
+    public static class Repository {
+        CoreOperations operations;
+
+        @Setup(Level.Trial)
+        public void setUp(Size size) throws ReflectiveOperationException {
+            operations = CoreOperations.create();
+            operations.prepareRepository(size.size, CONFLICT_PROBES);
+        }
+    }
+
+    @Benchmark
+    public Object loadAppointments(Files files) {
+        return files.operations.loadAppointments();
+    }
+
+    @Benchmark
+    public Object loadPatients(Files files) {
+        return files.operations.loadPatients();
+    }
+
+    @Benchmark
+    public Object associate(Lists lists) {
+        return lists.operations.associate();
+    }
+
+    @Benchmark
+    public Object filterByPatient(Lists lists) {
+        return lists.operations.filterByPatient();
+    }
+
+    /**
+     * Tempo por verificação: cada chamada verifica {@value #CONFLICT_PROBES} horários
+     */
+    @Benchmark
+    @OperationsPerInvocation(CONFLICT_PROBES)
+    public void hasConflict(Repository repository, Blackhole blackhole) {
+        CoreOperations operations = repository.operations;
+        for (int i = 0; i < CONFLICT_PROBES; i++) {
+            blackhole.consume(operations.hasConflict(i));
+        }
+    }
+
+    @Benchmark
+    public void save(Lists lists) throws IOException {
+        lists.operations.save();
+    }
+}
@@ -0,0 +1,83 @@
+package medapp.jmh;
+
+import java.io.IOException;
+
+/**
+ * Caminhos principais da aplicação medidos pelos {@link CoreBenchmarks}.
+ *
+ * O JMH não aceita benchmarks no pacote padrão, e as classes da aplicação
+ * estão nele, onde não podem ser importadas por este pacote. A implementação
+ * ({@code CoreOperationsImpl}) fica no pacote padrão e é carregada uma vez por
+ * {@link #create()}, na preparação do benchmark; as medidas chamam apenas os
+ * métodos desta interface.
+ *
+ * Cada instância prepara só os dados de que a medida precisa, para que os
+ * tamanhos maiores caibam na memória.
+ */
+public interface CoreOperations {
+
+    /**
+     * @return Nova implementação, ainda sem dados
+     */
+    static CoreOperations create() throws ReflectiveOperationException {
+        return (CoreOperations) Class.forName("CoreOperationsImpl").getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Grava os CSVs de consultas e de pacientes, sem manter os dados em memória
+     *
+     * @param size Número de consultas (os pacientes são size/10)
+     */
+    void prepareFiles(int size) throws IOException;
+
+    /**
+     * Gera as listas de consultas e de pacientes em memória
+     *
+     * @param size Número de consultas (os pacientes são size/10)
+     */
+    void prepareLists(int size) throws IOException;
+
+    /**
+     * Gera as consultas num repositório e os horários verificados em {@link #hasConflict(int)}
+     *
+     * @param size Número de consultas
+     * @param probes Número de horários verificados
+     */
+    void prepareRepository(int size, int probes);
+
+    /**
+     * Apaga os arquivos criados na preparação e nas medidas
+     */
+    void cleanUp() throws IOException;
+
+    /**
+     * @return Consultas carregadas do CSV
+     */
+    Object loadAppointments();
+
+    /**
+     * @return Pacientes carregados do CSV
+     */
+    Object loadPatients();
+
+    /**
+     * @return Pacientes com as consultas associadas
+     */
+    Object associate();
+
+    /**
+     * @return Consultas de um paciente
+     */
+    Object filterByPatient();
+
+    /**
+     * @param probe Índice do horário verificado
+     * @return true se o horário conflitar com uma consulta do médico
+     */
+    boolean hasConflict(int probe);
+
+    /**
+     * Grava o CSV de consultas
+     */
+    void save() throws IOException;
+}
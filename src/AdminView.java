@@ -21,15 +21,15 @@ public class AdminView {
 
     private static final String DOCTOR_CSV = "doctors_clean.csv"; // PADRONIZAÇÃO: arquivo único para médicos
     private static final String PATIENT_CSV = "patients.csv";
-    private static final String APPOINTMENT_CSV = "appointments.csv";
 
     /**
      * Exibe as opções de autenticação para o administrador
      *
      * @param login Flag para controle do loop de autenticação
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    public static void checkOptions(boolean login, Scanner scanner) {
+    public static void checkOptions(boolean login, AppointmentRepository appointments, Scanner scanner) {
         int option = -1;
         while (login) {
             try {
@@ -44,7 +44,7 @@ public class AdminView {
                         boolean admin = login(scanner);
                         if (admin) {
                             System.out.println("\nLogin efetuado com sucesso!");
-                            menu(scanner);
+                            menu(appointments, scanner);
                             login = false;
                         } else {
                             System.out.println("Login ou senha incorreta.");
@@ -89,9 +89,10 @@ public class AdminView {
     /**
      * Exibe o menu de opções do administrador
      *
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void menu(Scanner scanner) {
+    private static void menu(AppointmentRepository appointments, Scanner scanner) {
         int option = 1;
         while (option != 0) {
             try {
@@ -100,13 +101,16 @@ public class AdminView {
                 System.out.println("1 - Gerenciar Médicos");
                 System.out.println("2 - Gerenciar Pacientes");
                 System.out.println("3 - Gerenciar Consultas");
+                System.out.println("4 - Ver Métricas de Desempenho");
                 option = Integer.parseInt(scanner.nextLine());
+                Metrics.increment("menu.admin." + option);
 
                 switch (option) {
                     case 0: break;
                     case 1: manageDoctors(scanner); break;
-                    case 2: managePatients(scanner); break;
-                    case 3: manageAppointments(scanner); break;
+                    case 2: managePatients(appointments, scanner); break;
+                    case 3: manageAppointments(appointments, scanner); break;
+                    case 4: Metrics.print(System.out); break;
                     default: System.out.println("Opção inválida."); break;
                 }
             } catch (NumberFormatException e) {
@@ -147,9 +151,8 @@ public class AdminView {
 
         saveToCSV(DOCTOR_CSV, doctorName, doctorCode);
 
-        // Atualiza a lista de médicos se estiver carregada
-        List<Doctor> updatedDoctors = Doctor.loadFromCSV(DOCTOR_CSV);
-        updateDoctorsFromCSV(updatedDoctors, DOCTOR_CSV);
+        // O cadastro em memória passa a ler o arquivo atualizado
+        DoctorDirectory.invalidate();
     }
 
     private static void deleteDoctor(Scanner scanner) {
@@ -179,6 +182,7 @@ public class AdminView {
             } catch (IOException e) {
                 System.out.println("Erro ao salvar o arquivo: " + e.getMessage());
             }
+            DoctorDirectory.invalidate();
         } else {
             System.out.println("Médico com CRM " + crm + " não encontrado.");
         }
@@ -211,13 +215,15 @@ public class AdminView {
             } catch (IOException e) {
                 System.out.println("Erro ao salvar o arquivo: " + e.getMessage());
             }
+            DoctorDirectory.invalidate();
         } else {
             System.out.println("Médico com CRM " + crm + " não encontrado.");
         }
     }
 
     private static void listDoctors() {
-        List<Doctor> doctors = Doctor.loadFromCSV(DOCTOR_CSV);
+        // Cópia, pois a lista é ordenada abaixo
+        List<Doctor> doctors = new ArrayList<>(DoctorDirectory.getDoctors());
 
         if (doctors.isEmpty()) {
             System.out.println("\nNenhum médico cadastrado.");
@@ -228,10 +234,12 @@ public class AdminView {
         doctors.sort(Comparator.comparing(Doctor::getName));
 
         System.out.println("\nLista de médicos cadastrados:");
+        ListRenderer out = new ListRenderer();
         int index = 1;
         for (Doctor d : doctors) {
-            System.out.println(index++ + " - Nome: " + d.getName() + " | CRM: " + d.getCode());
+            out.append(index++).append(" - Nome: ").append(d.getName()).append(" | CRM: ").append(d.getCode()).newLine();
         }
+        out.flush();
     }
 
     private static void reintegrateDoctor(Scanner scanner) {
@@ -259,13 +267,14 @@ public class AdminView {
             } catch (IOException e) {
                 System.out.println("Erro ao salvar o arquivo: " + e.getMessage());
             }
+            DoctorDirectory.invalidate();
         } else {
             System.out.println("Médico com CRM " + crm + " não encontrado ou não está marcado como removido.");
         }
     }
 
 
-    private static void managePatients(Scanner scanner) {
+    private static void managePatients(AppointmentRepository appointments, Scanner scanner) {
         System.out.println("\n1 - Cadastrar Paciente");
         System.out.println("2 - Excluir Paciente");
         System.out.println("3 - Corrigir Paciente");
@@ -273,7 +282,7 @@ public class AdminView {
         int option = Integer.parseInt(scanner.nextLine());
 
         switch (option) {
-            case 1: registerPatient(scanner); break;
+            case 1: registerPatient(appointments, scanner); break;
             case 2: deletePatient(scanner); break;
             case 3: editPatient(scanner); break;
             case 0: return;
@@ -338,9 +347,10 @@ public class AdminView {
     /**
      * Cadastra um novo paciente no sistema
      *
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static Patient registerPatient(Scanner scanner) {
+    private static Patient registerPatient(AppointmentRepository appointments, Scanner scanner) {
         System.out.println("Digite o nome do paciente: ");
         String patientName = scanner.nextLine();
         System.out.println("Digite o CPF do paciente: ");
@@ -360,7 +370,7 @@ public class AdminView {
         Patient newPatient = new Patient(patientName, patientCPF);
 
         // ✅ CHAMADA ADICIONADA AQUI
-        offerScheduleAppointment(newPatient, scanner);
+        offerScheduleAppointment(newPatient, appointments, scanner);
 
         return newPatient;
     }
@@ -373,14 +383,15 @@ public class AdminView {
      * Oferece a opção de agendar uma consulta após o cadastro de um paciente
      *
      * @param patient Paciente recém-cadastrado
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void offerScheduleAppointment(Patient patient, Scanner scanner) {
+    private static void offerScheduleAppointment(Patient patient, AppointmentRepository appointments, Scanner scanner) {
         System.out.println("\nDeseja agendar uma consulta para este paciente? (s/n): ");
         String response = scanner.nextLine();
 
         if (response.equalsIgnoreCase("s")) {
-            scheduleAppointment(patient, scanner);
+            scheduleAppointment(patient, appointments, scanner);
         }
     }
 
@@ -388,12 +399,13 @@ public class AdminView {
      * Agenda uma nova consulta para um paciente
      *
      * @param patient Paciente para o qual a consulta será agendada
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void scheduleAppointment(Patient patient, Scanner scanner) {
+    private static void scheduleAppointment(Patient patient, AppointmentRepository appointments, Scanner scanner) {
         try {
-            // Carregar a lista de médicos
-            List<Doctor> doctors = Doctor.loadFromCSV(DOCTOR_CSV);
+            // Lista de médicos do cadastro em memória
+            List<Doctor> doctors = DoctorDirectory.getDoctors();
 
             if (doctors.isEmpty()) {
                 System.out.println("Não há médicos cadastrados. Cadastre um médico primeiro.");
@@ -402,9 +414,7 @@ public class AdminView {
 
             // Exibir lista de médicos
             System.out.println("\nSelecione o médico para a consulta:");
-            for (int i = 0; i < doctors.size(); i++) {
-                System.out.println((i + 1) + " - " + doctors.get(i).getName() + " (CRM: " + doctors.get(i).getCode() + ")");
-            }
+            UIUtils.printNumberedDoctors(doctors);
 
             System.out.print("\nDigite o número correspondente ao médico: ");
             int doctorIndex = Integer.parseInt(scanner.nextLine()) - 1;
@@ -423,8 +433,8 @@ public class AdminView {
             String timeStr = scanner.nextLine();
 
             try {
-                DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+                DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+                DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
                 LocalDate appointmentDate = LocalDate.parse(dateStr, dateFormatter);
                 LocalTime appointmentTime = LocalTime.parse(timeStr, timeFormatter);
@@ -440,7 +450,14 @@ public class AdminView {
                         AppointmentStatus.PENDING
                 );
 
-                appointment.saveToCSVFile(APPOINTMENT_CSV, true);
+                // Verificar se já existe consulta no mesmo horário para o médico
+                if (appointments.hasConflict(selectedDoctor.getCode(), appointmentDate, appointmentTime,
+                        appointment.getDurationMinutes(), null)) {
+                    System.out.println("Já existe uma consulta agendada neste horário.");
+                    return;
+                }
+
+                appointments.add(appointment);
 
                 System.out.println("\nConsulta agendada com sucesso!");
                 System.out.println("Paciente: " + patient.getName());
@@ -478,9 +495,10 @@ public class AdminView {
     /**
      * Interface para gerenciar consultas (cancelar ou alterar)
      *
+     * @param appointments Repositório de consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void manageAppointments(Scanner scanner) {
+    private static void manageAppointments(AppointmentRepository appointments, Scanner scanner) {
         try {
             System.out.print("Informe o CPF do paciente: ");
             String cpf = scanner.nextLine().trim();
@@ -506,14 +524,10 @@ public class AdminView {
                 return;
             }
 
-            // Carregar todas as consultas
-            List<Appointment> appointments = Appointment.loadFromCSV(APPOINTMENT_CSV);
-
             // Filtrar consultas futuras do paciente
             List<Appointment> futureAppointments = new ArrayList<>();
-            for (Appointment appointment : appointments) {
-                if (appointment.belongsToPatient(cpf) &&
-                        appointment.isPending()) {
+            for (Appointment appointment : appointments.findByPatient(cpf)) {
+                if (appointment.isPending()) {
                     futureAppointments.add(appointment);
                 }
             }
@@ -524,13 +538,16 @@ public class AdminView {
             }
 
             // Ordenar por data/hora
-            futureAppointments.sort(Comparator.comparing(a -> LocalDate.parse(a.getFormattedDateTime().split(" ")[0], DateTimeFormatter.ofPattern("dd/MM/yyyy"))));
+            futureAppointments.sort(Comparator.comparing(Appointment::getDate));
 
             System.out.println("\nConsultas futuras do paciente " + patient.getName() + ":");
+            ListRenderer out = new ListRenderer();
             for (int i = 0; i < futureAppointments.size(); i++) {
                 Appointment app = futureAppointments.get(i);
-                System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " (Médico: " + app.getDoctorCRM() + ")");
+                out.append(i + 1).append(" - ").appendDateTime(app.getDate(), app.getTime())
+                        .append(" (Médico: ").append(app.getDoctorCRM()).append(')').newLine();
             }
+            out.flush();
 
             System.out.print("\nDigite o número da consulta que deseja gerenciar (0 para voltar): ");
             int selection = Integer.parseInt(scanner.nextLine());
@@ -579,24 +596,17 @@ public class AdminView {
      * Cancela uma consulta agendada
      *
      * @param appointment Consulta a ser cancelada
-     * @param allAppointments Lista de todas as consultas
+     * @param allAppointments Repositório com todas as consultas
      */
-    private static void cancelAppointment(Appointment appointment, List<Appointment> allAppointments) {
+    private static void cancelAppointment(Appointment appointment, AppointmentRepository allAppointments) {
         try {
-            // Encontrar e atualizar a consulta na lista
-            for (Appointment app : allAppointments) {
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
-
-                    app.setStatus(AppointmentStatus.CANCELLED);
-                    break;
-                }
+            // Encontrar a consulta no repositório pelo ID e atualizá-la
+            Appointment existing = allAppointments.findById(appointment.getId());
+            if (existing == null) {
+                System.out.println("Erro: Consulta não encontrada na lista.");
+                return;
             }
-
-            // Salvar a lista atualizada
-            Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
+            allAppointments.updateStatus(existing, AppointmentStatus.CANCELLED);
 
             System.out.println("Consulta cancelada com sucesso!");
 
@@ -611,10 +621,10 @@ public class AdminView {
      * Altera a data e hora de uma consulta agendada
      *
      * @param appointment Consulta a ser alterada
-     * @param allAppointments Lista de todas as consultas
+     * @param allAppointments Repositório com todas as consultas
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void changeAppointmentDateTime(Appointment appointment, List<Appointment> allAppointments, Scanner scanner) {
+    private static void changeAppointmentDateTime(Appointment appointment, AppointmentRepository allAppointments, Scanner scanner) {
         try {
             // Obter nova data
             System.out.print("Digite a nova data da consulta (yyyy-MM-dd): ");
@@ -624,41 +634,35 @@ public class AdminView {
             System.out.print("Digite o novo horário da consulta (HH:mm): ");
             String timeStr = scanner.nextLine();
 
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+            DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
             LocalDate newDate = LocalDate.parse(dateStr, dateFormatter);
             LocalTime newTime = LocalTime.parse(timeStr, timeFormatter);
 
-            // Remover a consulta antiga
-            int indexToRemove = -1;
-            for (int i = 0; i < allAppointments.size(); i++) {
-                Appointment app = allAppointments.get(i);
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
+            // Localizar a consulta antiga pelo ID
+            Appointment existing = allAppointments.findById(appointment.getId());
 
-                    indexToRemove = i;
-                    break;
+            if (existing != null) {
+                // Verificar se já existe consulta no mesmo horário para o médico
+                if (allAppointments.hasConflict(existing.getDoctorCRM(), newDate, newTime,
+                        existing.getDurationMinutes(), existing)) {
+                    System.out.println("Já existe uma consulta agendada neste horário.");
+                    return;
                 }
-            }
 
-            if (indexToRemove != -1) {
                 // Criar nova consulta com os mesmos dados, exceto data e hora
                 Appointment newAppointment = new Appointment(
                         newDate,
                         newTime,
                         appointment.getPatientCPF(),
                         appointment.getDoctorCRM(),
-                        AppointmentStatus.PENDING
+                        AppointmentStatus.PENDING,
+                        appointment.getDurationMinutes()
                 );
 
-                // Substituir na lista
-                allAppointments.set(indexToRemove, newAppointment);
-
-                // Salvar a lista atualizada
-                Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
+                // Substituir no repositório
+                allAppointments.replace(existing, newAppointment);
 
                 System.out.println("Data e hora da consulta alteradas com sucesso!");
                 System.out.println("Nova data e hora: " + newAppointment.getFormattedDateTime());
@@ -711,43 +715,4 @@ public class AdminView {
             System.out.println("Erro ao atualizar lista de pacientes: " + e.getMessage());
         }
     }
-
-    /**
-     * Atualiza a lista de médicos a partir do arquivo CSV
-     *
-     * @param currentDoctors Lista atual de médicos
-     * @param filename Nome do arquivo CSV
-     */
-    public static void updateDoctorsFromCSV(List<Doctor> currentDoctors, String filename) {
-        // PADRÃO CONSOLIDADO: filename deve ser doctors_clean.csv
-        try (Scanner scanner = new Scanner(new File(filename))) {
-            if (scanner.hasNextLine()) scanner.nextLine();
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",");
-                if (parts.length < 2) continue;
-
-                String name = parts[0].trim();
-                String code = parts[1].trim(); // código como string
-
-                boolean exists = false;
-                for (Doctor d : currentDoctors) {
-                    if (d.getCode().equals(code)) {
-                        exists = true;
-                        break;
-                    }
-                }
-
-                if (!exists) {
-                    currentDoctors.add(new Doctor(name, code));
-                }
-            }
-
-        } catch (IOException e) {
-            System.out.println("Erro ao atualizar lista de médicos: " + e.getMessage());
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Relógio da aplicação. Todas as classes obtêm a data e hora atuais por aqui,
+ * em vez de chamar {@code LocalDateTime.now()}, o que permite trocar o
+ * relógio (ex.: por um relógio virtual em simulações) com {@link #setClock(Clock)}.
+ *
+ * O relógio é de baixa resolução: a data e hora convertidas são guardadas e
+ * reaproveitadas por até um segundo, evitando a conversão de fuso horário a
+ * cada leitura quando listas inteiras são comparadas com o horário atual.
+ * Consultas são marcadas em minutos, então o erro de até um segundo não
+ * altera nenhuma decisão.
+ */
+public final class AppClock {
+
+    private static final long RESOLUTION_MILLIS = 1000;
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Reading last;
+
+    private AppClock() {
+    }
+
+    /**
+     * Retorna a data e hora atuais (com resolução de um segundo)
+     *
+     * @return Data e hora atuais
+     */
+    public static LocalDateTime now() {
+        Clock current = clock;
+        long millis = current.millis();
+        Reading reading = last;
+        if (reading == null || reading.clock != current ||
+                millis < reading.millis || millis - reading.millis >= RESOLUTION_MILLIS) {
+            reading = new Reading(current, millis, LocalDateTime.now(current));
+            last = reading;
+        }
+        return reading.dateTime;
+    }
+
+    /**
+     * Retorna a data atual
+     *
+     * @return Data atual
+     */
+    public static LocalDate today() {
+        return now().toLocalDate();
+    }
+
+    /**
+     * Retorna o relógio em uso
+     *
+     * @return Relógio atual
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Substitui o relógio da aplicação (ex.: por um relógio virtual)
+     *
+     * @param newClock Novo relógio
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+        last = null;
+    }
+
+    /**
+     * Volta a usar o relógio do sistema
+     */
+    public static void reset() {
+        setClock(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Leitura guardada: relógio, instante em milissegundos e data e hora convertidas
+     */
+    private static final class Reading {
+        final Clock clock;
+        final long millis;
+        final LocalDateTime dateTime;
+
+        Reading(Clock clock, long millis, LocalDateTime dateTime) {
+            this.clock = clock;
+            this.millis = millis;
+            this.dateTime = dateTime;
+        }
+    }
+}
@@ -1,14 +1,16 @@
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Classe que representa uma consulta médica no sistema.
@@ -16,11 +18,20 @@ import java.util.Scanner;
  * oferecer funcionalidades para filtrar e gerenciar consultas.
  */
 public class Appointment {
+    /** Cabeçalho do arquivo CSV de consultas */
+    static final String CSV_HEADER = "Data,Horario,CPF_Paciente,CRM_Medico,Status,ID,Duracao";
+    /** Duração padrão de uma consulta, em minutos (usada em arquivos antigos e nas telas) */
+    static final int DEFAULT_DURATION_MINUTES = 30;
+    /** Maior duração aceita para uma consulta, em minutos */
+    static final int MAX_DURATION_MINUTES = 240;
+
+    private long id; // Identificador único; 0 enquanto a consulta não foi registrada no repositório
     private final LocalDate date;
     private final LocalTime time;
     private final String patientCPF;
     private final String doctorCRM;
     private AppointmentStatus status; // Novo atributo para status
+    private final int durationMinutes;
 
     /**
      * Construtor para criação de uma nova consulta
@@ -35,8 +46,9 @@ public class Appointment {
         this.time = time;
         this.patientCPF = patientCPF;
         this.doctorCRM = doctorCRM;
+        this.durationMinutes = DEFAULT_DURATION_MINUTES;
         // Define o status inicial com base na data
-        this.status = LocalDateTime.of(date, time).isBefore(LocalDateTime.now())
+        this.status = LocalDateTime.of(date, time).isBefore(AppClock.now())
                 ? AppointmentStatus.COMPLETED
                 : AppointmentStatus.PENDING;
     }
@@ -51,11 +63,49 @@ public class Appointment {
      * @param status Status da consulta
      */
     public Appointment(LocalDate date, LocalTime time, String patientCPF, String doctorCRM, AppointmentStatus status) {
+        this(date, time, patientCPF, doctorCRM, status, DEFAULT_DURATION_MINUTES);
+    }
+
+    /**
+     * Construtor completo incluindo status e duração
+     *
+     * @param date Data da consulta
+     * @param time Hora da consulta
+     * @param patientCPF CPF do paciente
+     * @param doctorCRM CRM do médico
+     * @param status Status da consulta
+     * @param durationMinutes Duração da consulta em minutos
+     */
+    public Appointment(LocalDate date, LocalTime time, String patientCPF, String doctorCRM,
+                       AppointmentStatus status, int durationMinutes) {
         this.date = date;
         this.time = time;
         this.patientCPF = patientCPF;
         this.doctorCRM = doctorCRM;
         this.status = status;
+        this.durationMinutes = durationMinutes;
+    }
+
+    /**
+     * Valida a duração de uma consulta
+     *
+     * @param durationMinutes Duração em minutos
+     * @return true se a duração estiver entre 5 e {@value #MAX_DURATION_MINUTES} minutos, em múltiplos de 5
+     */
+    public static boolean isValidDuration(int durationMinutes) {
+        return durationMinutes >= 5 && durationMinutes <= MAX_DURATION_MINUTES && durationMinutes % 5 == 0;
+    }
+
+    /**
+     * Verifica se a consulta ocupa parte do intervalo informado
+     *
+     * @param start Início do intervalo
+     * @param minutes Duração do intervalo em minutos
+     * @return true se os horários se sobrepõem
+     */
+    public boolean overlaps(LocalDateTime start, int minutes) {
+        LocalDateTime begin = LocalDateTime.of(date, time);
+        return begin.isBefore(start.plusMinutes(minutes)) && begin.plusMinutes(durationMinutes).isAfter(start);
     }
 
     /**
@@ -74,7 +124,7 @@ public class Appointment {
      * @return true se a consulta já ocorreu, false caso contrário
      */
     public boolean hasOccurred() {
-        return LocalDateTime.of(date, time).isBefore(LocalDateTime.now());
+        return LocalDateTime.of(date, time).isBefore(AppClock.now());
     }
 
     /**
@@ -104,33 +154,30 @@ public class Appointment {
      * @return String com data e hora no formato "dd/MM/yyyy às HH:mm"
      */
     public String getFormattedDateTime() {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        return date.format(dateFormatter) + " às " + time.format(timeFormatter);
+        return ListRenderer.appendDateTime(new StringBuilder(18), date, time).toString();
     }
 
     @Override
     public String toString() {
-        return "Consulta em " + getFormattedDateTime() +
-                ", Paciente: " + patientCPF +
-                ", Médico: " + doctorCRM +
-                ", Status: " + status.getDescription();
+        return ListRenderer.appendAppointment(new StringBuilder(80), this).toString();
     }
 
     /**
      * Formata a consulta para salvamento em CSV
      *
-     * @return String formatada para CSV
+     * @return String formatada para CSV (ID e duração só são incluídos se o ID já tiver sido atribuído)
      */
     public String toCSVFormat() {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
-        return date.format(dateFormatter) + "," +
-                time.format(timeFormatter) + "," +
-                patientCPF + "," +
-                doctorCRM + "," +
-                status.name(); // Adicionado o status
+        StringBuilder sb = new StringBuilder(64);
+        ListRenderer.appendIsoDate(sb, date).append(',');
+        ListRenderer.appendTime(sb, time).append(',')
+                .append(patientCPF).append(',')
+                .append(doctorCRM).append(',')
+                .append(status.name()); // Adicionado o status
+        if (id != 0) {
+            sb.append(',').append(id).append(',').append(durationMinutes);
+        }
+        return sb.toString();
     }
 
     /**
@@ -140,18 +187,38 @@ public class Appointment {
      * @param append Se true, adiciona ao final do arquivo; se false, sobrescreve o arquivo
      */
     public void saveToCSVFile(String filename, boolean append) {
+        JfrEvents.CsvWrite event = JfrEvents.startCsvWrite();
+        String line = toCSVFormat();
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename, append))) {
             if (!append) {
-                writer.println("Data,Horario,CPF_Paciente,CRM_Medico,Status");
+                writer.println(CSV_HEADER);
             }
-            writer.println(toCSVFormat());
+            writer.println(line);
         } catch (IOException error) {
             System.out.println("Erro ao salvar no arquivo CSV: " + error.getMessage());
         }
+        if (event != null && append) {
+            event.finishAppend(filename, 1, line.length() + System.lineSeparator().length());
+        } else if (event != null) {
+            event.finish(filename, 1);
+        }
     }
 
     // Getters
 
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Define o identificador da consulta (atribuído pelo repositório)
+     *
+     * @param id Identificador único
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+
     public LocalDate getDate() {
         return date;
     }
@@ -168,6 +235,10 @@ public class Appointment {
         return doctorCRM;
     }
 
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
     public AppointmentStatus getStatus() {
         return status;
     }
@@ -194,15 +265,25 @@ public class Appointment {
     }
 
 
+    /**
+     * Processa uma linha do arquivo CSV e converte em um objeto Appointment,
+     * exibindo no console os erros encontrados
+     *
+     * @param line Linha do arquivo CSV
+     * @return Objeto Appointment ou null em caso de erro
+     */
+    static Appointment parseLine(String line) {
+        return parseLine(line, System.out::println);
+    }
+
     /**
      * Processa uma linha do arquivo CSV e converte em um objeto Appointment
      *
      * @param line Linha do arquivo CSV
+     * @param errors Destino das mensagens de erro da linha
      * @return Objeto Appointment ou null em caso de erro
      */
-    private static Appointment parseLine(String line) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    static Appointment parseLine(String line, Consumer<String> errors) {
         String[] parts = line.split(",");
 
         if (parts.length < 4) return null;
@@ -214,13 +295,13 @@ public class Appointment {
 
         // Usar os métodos de validação das classes responsáveis
         if (!Patient.isValidCPF(cpf) || !Doctor.isValidCRM(crm)) {
-            System.out.println("CPF ou CRM inválido na linha: " + line);
+            errors.accept("CPF ou CRM inválido na linha: " + line);
             return null;
         }
 
         try {
-            LocalDate date = LocalDate.parse(dateStr, dateFormatter);
-            LocalTime time = LocalTime.parse(timeStr, timeFormatter);
+            LocalDate date = LocalDate.parse(dateStr, ListRenderer.ISO_DATE_FORMATTER);
+            LocalTime time = LocalTime.parse(timeStr, ListRenderer.TIME_FORMATTER);
 
             // Processar status, se existir
             AppointmentStatus status = AppointmentStatus.PENDING; // Padrão
@@ -228,13 +309,43 @@ public class Appointment {
                 try {
                     status = AppointmentStatus.valueOf(parts[4].trim());
                 } catch (IllegalArgumentException e) {
-                    System.out.println("Status inválido na linha: " + line + ". Usando status padrão.");
+                    errors.accept("Status inválido na linha: " + line + ". Usando status padrão.");
                 }
             }
 
-            return new Appointment(date, time, cpf, crm, status);
+            // Processar ID, se existir (arquivos antigos não têm a coluna; o repositório atribui um novo)
+            long id = 0;
+            if (parts.length >= 6) {
+                try {
+                    id = Long.parseLong(parts[5].trim());
+                } catch (NumberFormatException e) {
+                    id = 0;
+                }
+                if (id <= 0) {
+                    errors.accept("ID inválido na linha: " + line + ". Um novo ID será atribuído.");
+                    id = 0;
+                }
+            }
+
+            // Processar duração, se existir (arquivos antigos não têm a coluna)
+            int duration = DEFAULT_DURATION_MINUTES;
+            if (parts.length >= 7) {
+                try {
+                    duration = Integer.parseInt(parts[6].trim());
+                } catch (NumberFormatException e) {
+                    duration = 0;
+                }
+                if (!isValidDuration(duration)) {
+                    errors.accept("Duração inválida na linha: " + line + ". Usando " + DEFAULT_DURATION_MINUTES + " minutos.");
+                    duration = DEFAULT_DURATION_MINUTES;
+                }
+            }
+
+            Appointment appointment = new Appointment(date, time, cpf, crm, status, duration);
+            appointment.setId(id);
+            return appointment;
         } catch (Exception e) {
-            System.out.println("Erro ao converter data/hora na linha: " + line);
+            errors.accept("Erro ao converter data/hora na linha: " + line);
             return null;
         }
     }
@@ -246,24 +357,18 @@ public class Appointment {
      * @return Lista de consultas carregadas
      */
     public static List<Appointment> loadFromCSV(String filename) {
-        List<Appointment> appointments = new ArrayList<>();
-
-        try (Scanner scanner = new Scanner(new File(filename))) {
-            if (scanner.hasNextLine()) scanner.nextLine(); // pula cabeçalho
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                Appointment ap = parseLine(line);
-                if (ap != null) {
-                    appointments.add(ap);
-                }
-            }
+        JfrEvents.CsvRead event = JfrEvents.startCsvRead();
+        List<Appointment> appointments;
+        // Leitura via arquivo mapeado em memória; linhas fora do padrão caem em parseLine
+        try {
+            appointments = MappedCsvLoader.loadAppointments(filename);
         } catch (IOException e) {
             System.out.println("Erro ao carregar as consultas: " + e.getMessage());
+            appointments = new ArrayList<>();
+        }
+        if (event != null) {
+            event.finish(filename, appointments.size());
         }
-
         return appointments;
     }
 
@@ -275,12 +380,36 @@ public class Appointment {
      * @throws IOException se ocorrer erro ao escrever no arquivo
      */
     public static void saveAppointmentsToCSV(List<Appointment> appointments, String filename) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println("Data,Horario,CPF_Paciente,CRM_Medico,Status");
+        saveAppointmentsToCSV(appointments, filename, false);
+    }
+
+    /**
+     * Salva uma lista de consultas em um arquivo CSV. Qualquer falha de
+     * gravação (ex.: disco cheio) é lançada, nunca ignorada.
+     *
+     * @param appointments Lista de consultas a salvar
+     * @param filename Nome do arquivo CSV
+     * @param sync Se true, força a gravação no disco (fsync) antes de retornar
+     * @throws IOException se ocorrer erro ao escrever no arquivo
+     */
+    static void saveAppointmentsToCSV(List<Appointment> appointments, String filename, boolean sync) throws IOException {
+        JfrEvents.CsvWrite event = JfrEvents.startCsvWrite();
+        try (FileOutputStream out = new FileOutputStream(filename);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
 
             for (Appointment appointment : appointments) {
-                writer.println(appointment.toCSVFormat());
+                writer.write(appointment.toCSVFormat());
+                writer.newLine();
             }
+            writer.flush();
+            if (sync) {
+                out.getChannel().force(true);
+            }
+        }
+        if (event != null) {
+            event.finish(filename, appointments.size());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+/**
+ * Alteração no repositório de consultas que muda a associação entre
+ * consultas e pacientes: criação de uma consulta ou remarcação (substituição
+ * de uma consulta por outra). Mudanças de status não geram alteração, pois
+ * a consulta continua sendo o mesmo objeto.
+ */
+public class AppointmentChange {
+
+    private final Appointment oldAppointment;
+    private final Appointment newAppointment;
+
+    /**
+     * Cria o registro de uma alteração
+     *
+     * @param oldAppointment Consulta substituída, ou null se for uma criação
+     * @param newAppointment Consulta criada ou nova consulta da remarcação
+     */
+    public AppointmentChange(Appointment oldAppointment, Appointment newAppointment) {
+        this.oldAppointment = oldAppointment;
+        this.newAppointment = newAppointment;
+    }
+
+    /**
+     * Retorna a consulta substituída
+     *
+     * @return Consulta substituída, ou null se a alteração for uma criação
+     */
+    public Appointment getOldAppointment() {
+        return oldAppointment;
+    }
+
+    /**
+     * Retorna a consulta criada ou a nova consulta da remarcação
+     *
+     * @return Nova consulta
+     */
+    public Appointment getNewAppointment() {
+        return newAppointment;
+    }
+}
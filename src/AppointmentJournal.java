@@ -0,0 +1,276 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Diário (journal) de alterações das consultas.
+ * Cada criação, mudança de status ou remarcação é gravada como uma linha
+ * acrescentada ao final do arquivo, evitando reescrever o CSV completo a cada
+ * operação. Na inicialização o diário é reaplicado sobre o CSV, e a compactação
+ * periódica incorpora as alterações ao CSV e esvazia o diário.
+ *
+ * As consultas são identificadas no diário pelo ID. Entradas de diários
+ * gravados antes dos IDs (identificadas por data, hora, CPF e CRM) continuam
+ * sendo reaplicadas.
+ *
+ * A primeira linha do diário registra o tamanho e a data de modificação do CSV
+ * sobre o qual as alterações foram feitas. Se o CSV mudou desde então (por
+ * exemplo, a compactação gravou o CSV mas foi interrompida antes de esvaziar
+ * o diário), as alterações já estão no CSV e o diário é descartado.
+ */
+public class AppointmentJournal implements AutoCloseable {
+
+    private static final String HEADER_PREFIX = "#base=";
+    private static final String CREATE = "CREATE";
+    private static final String STATUS = "STATUS";
+    private static final String RESCHEDULE = "RESCHEDULE";
+
+    private final Path path;
+    private final Path snapshotPath;
+    private BufferedWriter writer;
+    private int pendingEntries;
+
+    /**
+     * Cria o diário associado a um arquivo CSV de consultas
+     *
+     * @param filename Nome do arquivo do diário
+     * @param snapshotFilename Nome do arquivo CSV de consultas
+     */
+    public AppointmentJournal(String filename, String snapshotFilename) {
+        this.path = Paths.get(filename);
+        this.snapshotPath = Paths.get(snapshotFilename);
+    }
+
+    /**
+     * Reaplica as alterações do diário sobre as consultas carregadas do CSV
+     *
+     * @param repository Repositório carregado a partir do CSV
+     * @return Número de alterações reaplicadas
+     * @throws IOException se ocorrer erro ao ler o diário
+     */
+    public int replay(AppointmentRepository repository) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(HEADER_PREFIX + snapshotStamp())) {
+                // O CSV foi regravado depois deste diário: as alterações já estão nele
+                return 0;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                if (apply(line, repository)) {
+                    applied++;
+                } else {
+                    System.out.println("Entrada inválida no diário de consultas: " + line);
+                }
+            }
+        }
+        pendingEntries = applied;
+        return applied;
+    }
+
+    /**
+     * Abre o diário para gravação. Se o arquivo não existir ou não corresponder
+     * ao CSV atual, ele é recriado vazio.
+     *
+     * @throws IOException se ocorrer erro ao abrir o arquivo
+     */
+    public synchronized void open() throws IOException {
+        if (Files.exists(path)) {
+            String header;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                header = reader.readLine();
+            }
+            if (header != null && header.equals(HEADER_PREFIX + snapshotStamp())) {
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                return;
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Esvazia o diário após o CSV ter sido regravado com todas as alterações
+     *
+     * @throws IOException se ocorrer erro ao gravar o arquivo
+     */
+    public synchronized void reset() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writer.write(HEADER_PREFIX + snapshotStamp());
+        writer.newLine();
+        writer.flush();
+        pendingEntries = 0;
+    }
+
+    /**
+     * Registra a criação de uma consulta
+     *
+     * @param appointment Consulta criada
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public void recordCreate(Appointment appointment) throws IOException {
+        append(CREATE + "," + appointment.toCSVFormat());
+    }
+
+    /**
+     * Registra a mudança de status de uma consulta
+     *
+     * @param appointment Consulta alterada
+     * @param status Novo status
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public void recordStatus(Appointment appointment, AppointmentStatus status) throws IOException {
+        append(STATUS + "," + appointment.getId() + "," + status.name());
+    }
+
+    /**
+     * Registra a mudança de status de várias consultas numa única gravação
+     *
+     * @param appointments Consultas alteradas
+     * @param status Novo status
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public void recordStatuses(List<Appointment> appointments, AppointmentStatus status) throws IOException {
+        List<String> entries = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            entries.add(STATUS + "," + appointment.getId() + "," + status.name());
+        }
+        append(entries);
+    }
+
+    /**
+     * Registra a remarcação (substituição) de uma consulta
+     *
+     * @param oldAppointment Consulta original
+     * @param newAppointment Nova consulta
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public void recordReschedule(Appointment oldAppointment, Appointment newAppointment) throws IOException {
+        append(RESCHEDULE + "," + oldAppointment.getId() + "," + newAppointment.toCSVFormat());
+    }
+
+    /**
+     * Retorna o número de alterações ainda não incorporadas ao CSV
+     *
+     * @return Quantidade de entradas no diário
+     */
+    public synchronized int getPendingEntries() {
+        return pendingEntries;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private synchronized void append(String entry) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        writer.write(entry);
+        writer.newLine();
+        writer.flush();
+        pendingEntries++;
+    }
+
+    private synchronized void append(List<String> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (writer == null) {
+            open();
+        }
+        for (String entry : entries) {
+            writer.write(entry);
+            writer.newLine();
+        }
+        writer.flush();
+        pendingEntries += entries.size();
+    }
+
+    private boolean apply(String line, AppointmentRepository repository) throws IOException {
+        int separator = line.indexOf(',');
+        if (separator == -1) return false;
+
+        String operation = line.substring(0, separator);
+        String[] parts = line.substring(separator + 1).split(",");
+        // Entradas antigas começam pela data (yyyy-MM-dd) em vez do ID
+        boolean legacy = parts.length > 0 && parts[0].indexOf('-') != -1;
+        int keyFields = legacy ? 4 : 1;
+
+        switch (operation) {
+            case CREATE: {
+                Appointment appointment = Appointment.parseLine(line.substring(separator + 1));
+                if (appointment == null) return false;
+                repository.add(appointment);
+                return true;
+            }
+            case STATUS: {
+                if (parts.length < keyFields + 1) return false;
+                Appointment existing = findByKey(repository, parts, legacy);
+                if (existing == null) return false;
+                try {
+                    repository.updateStatus(existing, AppointmentStatus.valueOf(parts[keyFields].trim()));
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+                return true;
+            }
+            case RESCHEDULE: {
+                if (parts.length < keyFields + 4) return false;
+                Appointment existing = findByKey(repository, parts, legacy);
+                String[] csv = Arrays.copyOfRange(parts, keyFields, parts.length);
+                if (csv.length == 4) {
+                    csv = new String[]{csv[0], csv[1], csv[2], csv[3], AppointmentStatus.PENDING.name()};
+                }
+                Appointment replacement = Appointment.parseLine(String.join(",", csv));
+                if (existing == null || replacement == null) return false;
+                return repository.replace(existing, replacement);
+            }
+            default:
+                return false;
+        }
+    }
+
+    private static Appointment findByKey(AppointmentRepository repository, String[] parts, boolean legacy) {
+        if (legacy) {
+            Appointment key = Appointment.parseLine(String.join(",", parts[0], parts[1], parts[2], parts[3]));
+            return key == null ? null : repository.find(key);
+        }
+        try {
+            return repository.findById(Long.parseLong(parts[0].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String snapshotStamp() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return "0:0";
+        }
+        return Files.size(snapshotPath) + ":" + Files.getLastModifiedTime(snapshotPath).toMillis();
+    }
+}
@@ -0,0 +1,733 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Repositório em memória das consultas do sistema.
+ * Mantém a lista de consultas na ordem do arquivo CSV e índices auxiliares
+ * (por ID, por CPF do paciente, por CRM do médico e por data/hora) para que
+ * as buscas das telas não precisem percorrer todas as consultas. As
+ * consultas de cada médico também ficam ordenadas por minuto de início, para
+ * que as buscas por período ({@link #findByDoctorInPeriod}) leiam só a faixa
+ * pedida, já em ordem.
+ *
+ * As consultas pendentes também ficam na agenda de cada médico
+ * ({@link DoctorCalendar}), com um índice de intervalos para a verificação de
+ * conflito (sobreposição considerando a duração das consultas) e um mapa de
+ * bits para a busca de horários livres.
+ *
+ * Cada consulta recebe um ID único e estável, gravado no CSV. Consultas sem
+ * ID (arquivos antigos ou criadas nas telas) recebem o próximo ID livre; se
+ * isso acontecer na carga, o CSV é regravado na abertura com os novos IDs.
+ *
+ * Quando aberto com um diário ({@link #open(String, String)}), cada alteração
+ * é acrescentada ao diário em vez de regravar o CSV; o CSV só é regravado na
+ * compactação ({@link #compact()}).
+ *
+ * Criações e remarcações também ficam registradas em um log de alterações em
+ * memória, lido por meio de um {@link ChangeCursor}, para que quem mantém
+ * dados derivados (ex.: as consultas de cada paciente) aplique só o que
+ * mudou. O log só guarda o que algum leitor aberto ainda não leu.
+ */
+public class AppointmentRepository {
+
+    private final List<Appointment> appointments = new ArrayList<>();
+    private final Map<Appointment, Integer> positions = new IdentityHashMap<>();
+    private final Map<Long, Appointment> byId = new HashMap<>();
+    private final Map<String, List<Appointment>> byPatient = new HashMap<>();
+    private final Map<String, List<Appointment>> byDoctor = new HashMap<>();
+    // CRM → minuto de início (desde 1970-01-01 00:00) → consultas nesse minuto
+    private final Map<String, NavigableMap<Long, List<Appointment>>> byDoctorTime = new HashMap<>();
+    private final NavigableMap<LocalDateTime, List<Appointment>> byDateTime = new TreeMap<>();
+    // Alterações ainda não lidas por algum leitor; a primeira tem o número changesBase
+    private final List<AppointmentChange> changes = new ArrayList<>();
+    private final List<ChangeCursor> cursors = new ArrayList<>();
+    private long changesBase;
+    private final DoctorCalendar calendar = new DoctorCalendar();
+    private AppointmentJournal journal;
+    private String snapshotFilename;
+    private long nextId = 1;
+    private boolean idsAssigned;
+
+    /**
+     * Cria um repositório vazio
+     */
+    public AppointmentRepository() {
+    }
+
+    /**
+     * Cria um repositório indexando as consultas informadas
+     *
+     * @param appointments Consultas iniciais, na ordem do arquivo
+     */
+    public AppointmentRepository(List<Appointment> appointments) {
+        // Os novos IDs começam depois do maior ID já existente
+        for (Appointment appointment : appointments) {
+            nextId = Math.max(nextId, appointment.getId() + 1);
+        }
+        for (Appointment appointment : appointments) {
+            if (assignId(appointment)) {
+                idsAssigned = true;
+            }
+            positions.put(appointment, this.appointments.size());
+            this.appointments.add(appointment);
+            index(appointment);
+        }
+    }
+
+    /**
+     * Carrega as consultas de um arquivo CSV para um novo repositório
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Repositório com as consultas carregadas
+     */
+    public static AppointmentRepository loadFromCSV(String filename) {
+        return new AppointmentRepository(Appointment.loadFromCSV(filename));
+    }
+
+    /**
+     * Carrega as consultas do CSV, reaplica as alterações do diário e passa a
+     * registrar as novas alterações nele
+     *
+     * @param filename Nome do arquivo CSV
+     * @param journalFilename Nome do arquivo do diário
+     * @return Repositório com as consultas carregadas
+     * @throws IOException se ocorrer erro ao ler ou abrir o diário
+     */
+    public static AppointmentRepository open(String filename, String journalFilename) throws IOException {
+        return open(filename, journalFilename, null);
+    }
+
+    /**
+     * Abre o repositório a partir de consultas já carregadas do snapshot
+     * binário, se houver, ou do CSV. O diário é reaplicado por cima em
+     * ambos os casos.
+     *
+     * @param filename Nome do arquivo CSV
+     * @param journalFilename Nome do arquivo do diário
+     * @param snapshot Snapshot binário (pode ser null); só é usado se corresponder ao CSV atual
+     * @return Repositório com as consultas carregadas
+     * @throws IOException se ocorrer erro ao ler ou abrir o diário
+     */
+    public static AppointmentRepository open(String filename, String journalFilename,
+                                             BinarySnapshot snapshot) throws IOException {
+        StartupProfiler.Phase phase = StartupProfiler.begin("consultas.snapshot");
+        List<Appointment> loaded = snapshot == null ? null : snapshot.getAppointments(filename);
+        if (loaded == null) {
+            // O tempo gasto verificando o snapshot desatualizado também conta
+            phase.end(0);
+            phase = StartupProfiler.begin("consultas.csv");
+            loaded = Appointment.loadFromCSV(filename);
+        }
+        phase.end(loaded.size());
+
+        phase = StartupProfiler.begin("consultas.indice");
+        AppointmentRepository repository = new AppointmentRepository(loaded);
+        phase.end(repository.size());
+
+        phase = StartupProfiler.begin("consultas.diario");
+        AppointmentJournal journal = new AppointmentJournal(journalFilename, filename);
+        phase.end(journal.replay(repository));
+        // As alterações reaplicadas já fazem parte do estado inicial
+        repository.changes.clear();
+        journal.open();
+        repository.journal = journal;
+        repository.snapshotFilename = filename;
+
+        // Migração: grava no CSV os IDs atribuídos às consultas que não tinham
+        if (repository.idsAssigned) {
+            repository.compact();
+        }
+        return repository;
+    }
+
+    /**
+     * Adiciona uma consulta ao repositório e atualiza os índices
+     *
+     * @param appointment Consulta a ser adicionada
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public synchronized void add(Appointment appointment) throws IOException {
+        long start = Metrics.start();
+        try {
+            if (assignId(appointment) && journal == null) {
+                // Sem diário (ex.: reaplicando um diário antigo), o ID novo só chega ao CSV na compactação
+                idsAssigned = true;
+            }
+            if (journal != null) {
+                journal.recordCreate(appointment);
+            }
+            positions.put(appointment, appointments.size());
+            appointments.add(appointment);
+            index(appointment);
+            recordChange(new AppointmentChange(null, appointment));
+        } finally {
+            Metrics.stop("consultas.marcar", start);
+        }
+    }
+
+    /**
+     * Substitui uma consulta por outra (ex.: remarcação), mantendo a posição
+     * original na lista e o ID, e atualizando os índices
+     *
+     * @param oldAppointment Consulta existente
+     * @param newAppointment Nova consulta
+     * @return true se a consulta existente foi encontrada e substituída
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public synchronized boolean replace(Appointment oldAppointment, Appointment newAppointment) throws IOException {
+        // Busca por identidade: consultas iguais em todos os campos são registros distintos
+        if (!positions.containsKey(oldAppointment)) {
+            return false;
+        }
+        long start = Metrics.start();
+        try {
+            // A remarcação continua sendo a mesma consulta
+            newAppointment.setId(oldAppointment.getId());
+            if (journal != null) {
+                journal.recordReschedule(oldAppointment, newAppointment);
+            }
+            int position = positions.remove(oldAppointment);
+            unindex(oldAppointment);
+            appointments.set(position, newAppointment);
+            positions.put(newAppointment, position);
+            index(newAppointment);
+            recordChange(new AppointmentChange(oldAppointment, newAppointment));
+            return true;
+        } finally {
+            Metrics.stop("consultas.remarcar", start);
+        }
+    }
+
+    /**
+     * Altera o status de uma consulta do repositório
+     *
+     * @param appointment Consulta a ser alterada
+     * @param status Novo status
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public synchronized void updateStatus(Appointment appointment, AppointmentStatus status) throws IOException {
+        long start = Metrics.start();
+        try {
+            if (journal != null) {
+                journal.recordStatus(appointment, status);
+            }
+            boolean wasPending = appointment.getStatus() == AppointmentStatus.PENDING;
+            boolean isPending = status == AppointmentStatus.PENDING;
+            if (wasPending && !isPending) {
+                calendar.release(appointment);
+            } else if (!wasPending && isPending) {
+                calendar.book(appointment);
+            }
+            appointment.setStatus(status);
+            if (status == AppointmentStatus.CANCELLED) {
+                Metrics.increment("consultas.canceladas");
+            }
+        } finally {
+            Metrics.stop("consultas.status", start);
+        }
+    }
+
+    /**
+     * Marca como realizadas, de uma vez, as consultas da lista que ainda estão
+     * pendentes no repositório. Consultas que saíram do repositório (ex.:
+     * substituídas numa remarcação) ou que mudaram de status (ex.: canceladas)
+     * são ignoradas. Todas as mudanças vão para o diário numa única gravação.
+     *
+     * @param appointments Consultas candidatas
+     * @return Consultas efetivamente marcadas como realizadas
+     * @throws IOException se ocorrer erro ao gravar no diário
+     */
+    public synchronized List<Appointment> completeAll(List<Appointment> appointments) throws IOException {
+        List<Appointment> completed = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            if (appointment.getStatus() == AppointmentStatus.PENDING && positions.containsKey(appointment)) {
+                completed.add(appointment);
+            }
+        }
+        if (completed.isEmpty()) {
+            return completed;
+        }
+        long start = Metrics.start();
+        try {
+            if (journal != null) {
+                journal.recordStatuses(completed, AppointmentStatus.COMPLETED);
+            }
+            for (Appointment appointment : completed) {
+                calendar.release(appointment);
+                appointment.setStatus(AppointmentStatus.COMPLETED);
+            }
+            return completed;
+        } finally {
+            Metrics.stop("consultas.realizar", start);
+        }
+    }
+
+    /**
+     * Localiza uma consulta pelo ID
+     *
+     * @param id ID da consulta
+     * @return Consulta encontrada ou null se não existir
+     */
+    public synchronized Appointment findById(long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Localiza uma consulta pelos campos que a identificam.
+     * Consultas iguais nesses campos são indistinguíveis; prefira {@link #findById(long)}.
+     *
+     * @param date Data da consulta
+     * @param time Hora da consulta
+     * @param patientCPF CPF do paciente
+     * @param doctorCRM CRM do médico
+     * @return Consulta encontrada ou null se não existir
+     */
+    public Appointment find(LocalDate date, LocalTime time, String patientCPF, String doctorCRM) {
+        for (Appointment app : findAt(date, time)) {
+            if (app.getPatientCPF().equals(patientCPF) && app.getDoctorCRM().equals(doctorCRM)) {
+                return app;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Localiza no repositório a consulta equivalente à informada
+     * (mesma data, hora, paciente e médico)
+     *
+     * @param appointment Consulta de referência
+     * @return Consulta encontrada ou null se não existir
+     */
+    public Appointment find(Appointment appointment) {
+        return find(appointment.getDate(), appointment.getTime(),
+                appointment.getPatientCPF(), appointment.getDoctorCRM());
+    }
+
+    /**
+     * Verifica se o médico já possui consulta pendente que se sobreponha a
+     * uma consulta de duração padrão no horário informado
+     *
+     * @param doctorCRM CRM do médico
+     * @param date Data desejada
+     * @param time Hora desejada
+     * @param ignored Consulta a ser desconsiderada na verificação (ex.: a que está sendo remarcada), pode ser null
+     * @return true se houver conflito de horário
+     */
+    public boolean hasConflict(String doctorCRM, LocalDate date, LocalTime time, Appointment ignored) {
+        return hasConflict(doctorCRM, date, time, Appointment.DEFAULT_DURATION_MINUTES, ignored);
+    }
+
+    /**
+     * Verifica se o médico já possui consulta pendente que se sobreponha ao intervalo informado
+     *
+     * @param doctorCRM CRM do médico
+     * @param date Data desejada
+     * @param time Hora desejada
+     * @param durationMinutes Duração desejada em minutos
+     * @param ignored Consulta a ser desconsiderada na verificação (ex.: a que está sendo remarcada), pode ser null
+     * @return true se houver conflito de horário
+     */
+    public synchronized boolean hasConflict(String doctorCRM, LocalDate date, LocalTime time,
+                                            int durationMinutes, Appointment ignored) {
+        long start = Metrics.start();
+        JfrEvents.ConflictCheck event = JfrEvents.startConflictCheck();
+        boolean conflict = false;
+        try {
+            for (Appointment appointment : calendar.overlapping(doctorCRM, date, time, durationMinutes)) {
+                if (appointment != ignored) {
+                    conflict = true;
+                    break;
+                }
+            }
+            return conflict;
+        } finally {
+            Metrics.stop("consultas.conflito", start);
+            if (event != null) {
+                event.finish(doctorCRM, date, time, durationMinutes, conflict);
+            }
+        }
+    }
+
+    /**
+     * Retorna os próximos horários livres do médico dentro do expediente
+     * ({@link DoctorCalendar#WORK_START} a {@link DoctorCalendar#WORK_END}),
+     * em faixas de 15 minutos, para uma consulta de duração padrão
+     *
+     * @param doctorCRM CRM do médico
+     * @param from Instante a partir do qual buscar
+     * @param count Número máximo de horários
+     * @return Horários livres em ordem cronológica
+     */
+    public synchronized List<LocalDateTime> findNextFreeSlots(String doctorCRM, LocalDateTime from, int count) {
+        long start = Metrics.start();
+        try {
+            return calendar.nextFreeSlots(doctorCRM, from, count, Appointment.DEFAULT_DURATION_MINUTES);
+        } finally {
+            Metrics.stop("busca.horarios_livres", start);
+        }
+    }
+
+    /**
+     * Retorna os horários livres mais próximos entre vários médicos, para quem
+     * não tem preferência de médico
+     *
+     * @param doctorCRMs CRMs dos médicos considerados, em ordem de preferência para empates
+     * @param from Instante a partir do qual buscar
+     * @param count Número máximo de horários
+     * @return Horários livres em ordem cronológica, com o médico de cada um
+     */
+    public synchronized List<FreeSlot> findEarliestFreeSlots(List<String> doctorCRMs, LocalDateTime from, int count) {
+        long start = Metrics.start();
+        try {
+            return calendar.earliestFreeSlots(doctorCRMs, from, count, Appointment.DEFAULT_DURATION_MINUTES);
+        } finally {
+            Metrics.stop("busca.primeiros_livres", start);
+        }
+    }
+
+    /**
+     * Retorna as consultas marcadas exatamente na data e hora informadas
+     *
+     * @param date Data
+     * @param time Hora
+     * @return Lista (somente leitura) de consultas no horário
+     */
+    public List<Appointment> findAt(LocalDate date, LocalTime time) {
+        List<Appointment> result = byDateTime.get(LocalDateTime.of(date, time));
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Retorna as consultas de um paciente, na ordem do arquivo
+     *
+     * @param patientCPF CPF do paciente
+     * @return Lista (somente leitura) de consultas do paciente
+     */
+    public List<Appointment> findByPatient(String patientCPF) {
+        List<Appointment> result = byPatient.get(patientCPF);
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Retorna as consultas de um médico, na ordem do arquivo
+     *
+     * @param doctorCRM CRM do médico
+     * @return Lista (somente leitura) de consultas do médico
+     */
+    public List<Appointment> findByDoctor(String doctorCRM) {
+        List<Appointment> result = byDoctor.get(doctorCRM);
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Retorna as consultas de um médico entre duas datas (inclusive),
+     * ordenadas por data e hora. Lê só a faixa do período no índice do
+     * médico, sem percorrer as demais consultas dele.
+     *
+     * @param doctorCRM CRM do médico
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @return Lista de consultas do médico no período
+     */
+    public List<Appointment> findByDoctorInPeriod(String doctorCRM, LocalDate startDate, LocalDate endDate) {
+        List<Appointment> result = new ArrayList<>();
+        NavigableMap<Long, List<Appointment>> timeline = byDoctorTime.get(doctorCRM);
+        if (timeline == null || endDate.isBefore(startDate)) {
+            return result;
+        }
+        for (List<Appointment> slot : timeline.subMap(minuteOf(startDate, LocalTime.MIDNIGHT), true,
+                minuteOf(endDate.plusDays(1), LocalTime.MIDNIGHT), false).values()) {
+            result.addAll(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Retorna um cursor sobre as consultas de um médico entre duas datas
+     * (inclusive), lidas do índice do médico uma a uma, sem montar a lista
+     * (para paginação, ver {@link UIUtils#paginate}).
+     *
+     * @param doctorCRM CRM do médico
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @param newestFirst Se true, da mais recente para a mais antiga
+     * @param filter Consultas a incluir
+     * @return Cursor posicionado na primeira consulta
+     */
+    public ListIterator<Appointment> cursorByDoctorInPeriod(String doctorCRM, LocalDate startDate, LocalDate endDate,
+                                                            boolean newestFirst, Predicate<Appointment> filter) {
+        NavigableMap<Long, List<Appointment>> timeline = byDoctorTime.get(doctorCRM);
+        if (timeline == null || endDate.isBefore(startDate)) {
+            return Collections.<Appointment>emptyList().listIterator();
+        }
+        return new IndexCursor<>(timeline.subMap(minuteOf(startDate, LocalTime.MIDNIGHT), true,
+                minuteOf(endDate.plusDays(1), LocalTime.MIDNIGHT), false), newestFirst, filter);
+    }
+
+    /**
+     * Retorna as consultas entre duas datas (inclusive), ordenadas por data e hora
+     *
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @return Lista de consultas do período
+     */
+    public List<Appointment> findInPeriod(LocalDate startDate, LocalDate endDate) {
+        List<Appointment> result = new ArrayList<>();
+        if (endDate.isBefore(startDate)) {
+            return result;
+        }
+        for (List<Appointment> slot : byDateTime.subMap(startDate.atStartOfDay(), true,
+                endDate.plusDays(1).atStartOfDay(), false).values()) {
+            result.addAll(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Retorna todas as consultas, na ordem do arquivo
+     *
+     * @return Lista (somente leitura) de consultas
+     */
+    public List<Appointment> getAll() {
+        return Collections.unmodifiableList(appointments);
+    }
+
+    /**
+     * Retorna o número de consultas no repositório
+     *
+     * @return Quantidade de consultas
+     */
+    public int size() {
+        return appointments.size();
+    }
+
+    /**
+     * Abre um leitor do log de alterações, posicionado depois da última
+     * alteração registrada. O leitor deve ser fechado quando não for mais
+     * usado, senão o log guarda as alterações para ele indefinidamente.
+     *
+     * @return Leitor das alterações feitas a partir de agora
+     */
+    public synchronized ChangeCursor openChangeCursor() {
+        ChangeCursor cursor = new ChangeCursor(changesBase + changes.size());
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    /**
+     * Leitor do log de alterações ({@link #openChangeCursor()}): cada leitor
+     * recebe as criações e remarcações feitas depois da sua última leitura,
+     * independentemente dos demais leitores
+     */
+    public final class ChangeCursor implements AutoCloseable {
+        private long position;
+        private boolean closed;
+
+        private ChangeCursor(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Retorna as alterações feitas desde a última leitura e avança o leitor
+         *
+         * @return Alterações na ordem em que foram feitas
+         */
+        public List<AppointmentChange> poll() {
+            synchronized (AppointmentRepository.this) {
+                if (closed) {
+                    throw new IllegalStateException("Leitor de alterações já fechado");
+                }
+                List<AppointmentChange> result = new ArrayList<>(
+                        changes.subList((int) (position - changesBase), changes.size()));
+                position = changesBase + changes.size();
+                trimChanges();
+                return result;
+            }
+        }
+
+        /**
+         * Fecha o leitor; as alterações que só ele não tinha lido são descartadas
+         */
+        @Override
+        public void close() {
+            synchronized (AppointmentRepository.this) {
+                if (!closed) {
+                    closed = true;
+                    cursors.remove(this);
+                    trimChanges();
+                }
+            }
+        }
+    }
+
+    private void recordChange(AppointmentChange change) {
+        // Sem leitores, ninguém vai ler a alteração
+        if (!cursors.isEmpty()) {
+            changes.add(change);
+        }
+    }
+
+    private void trimChanges() {
+        // Descarta o que todos os leitores abertos já leram
+        long lowest = changesBase + changes.size();
+        for (ChangeCursor cursor : cursors) {
+            lowest = Math.min(lowest, cursor.position);
+        }
+        int read = (int) (lowest - changesBase);
+        if (read > 0) {
+            changes.subList(0, read).clear();
+            changesBase = lowest;
+        }
+    }
+
+    /**
+     * Salva todas as consultas do repositório em um arquivo CSV
+     *
+     * @param filename Nome do arquivo CSV
+     * @throws IOException se ocorrer erro ao escrever no arquivo
+     */
+    public synchronized void saveToCSV(String filename) throws IOException {
+        long start = Metrics.start();
+        try {
+            Appointment.saveAppointmentsToCSV(appointments, filename);
+        } finally {
+            Metrics.stop("csv.gravacao", start);
+        }
+    }
+
+    /**
+     * Incorpora as alterações do diário ao CSV: regrava o CSV em um arquivo
+     * temporário, substitui o original e esvazia o diário.
+     * O CSV só é substituído, e o diário só é esvaziado, depois que o arquivo
+     * temporário foi gravado por completo e sincronizado com o disco; se a
+     * gravação falhar, o temporário é apagado e o CSV e o diário ficam intactos.
+     * Não faz nada se o repositório não tiver diário ou se ele estiver vazio.
+     *
+     * @return true se o CSV foi regravado
+     * @throws IOException se ocorrer erro ao gravar os arquivos
+     */
+    public synchronized boolean compact() throws IOException {
+        if (journal == null || (journal.getPendingEntries() == 0 && !idsAssigned)) {
+            return false;
+        }
+        long start = Metrics.start();
+        try {
+            Path target = Paths.get(snapshotFilename);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                Appointment.saveAppointmentsToCSV(appointments, temp.toString(), true);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            journal.reset();
+            idsAssigned = false;
+            return true;
+        } finally {
+            Metrics.stop("diario.compactacao", start);
+        }
+    }
+
+    /**
+     * Retorna o nome do arquivo CSV de onde o repositório foi aberto
+     *
+     * @return Nome do arquivo CSV, ou null se o repositório não tiver diário
+     */
+    public String getFilename() {
+        return snapshotFilename;
+    }
+
+    /**
+     * Fecha o diário associado ao repositório, se houver
+     *
+     * @throws IOException se ocorrer erro ao fechar o arquivo
+     */
+    public synchronized void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Atribui o próximo ID livre à consulta se ela não tiver ID ou se o ID já
+     * estiver em uso (linhas duplicadas no CSV)
+     *
+     * @return true se um novo ID foi atribuído
+     */
+    private boolean assignId(Appointment appointment) {
+        long id = appointment.getId();
+        if (id > 0 && !byId.containsKey(id)) {
+            nextId = Math.max(nextId, id + 1);
+            return false;
+        }
+        appointment.setId(nextId++);
+        return true;
+    }
+
+    private void index(Appointment appointment) {
+        byId.put(appointment.getId(), appointment);
+        byPatient.computeIfAbsent(appointment.getPatientCPF(), k -> new ArrayList<>()).add(appointment);
+        byDoctor.computeIfAbsent(appointment.getDoctorCRM(), k -> new ArrayList<>()).add(appointment);
+        byDoctorTime.computeIfAbsent(appointment.getDoctorCRM(), k -> new TreeMap<>())
+                .computeIfAbsent(minuteOf(appointment.getDate(), appointment.getTime()), k -> new ArrayList<>(1))
+                .add(appointment);
+        byDateTime.computeIfAbsent(LocalDateTime.of(appointment.getDate(), appointment.getTime()),
+                k -> new ArrayList<>(1)).add(appointment);
+        if (appointment.getStatus() == AppointmentStatus.PENDING) {
+            calendar.book(appointment);
+        }
+    }
+
+    private void unindex(Appointment appointment) {
+        byId.remove(appointment.getId());
+        removeFrom(byPatient, appointment.getPatientCPF(), appointment);
+        removeFrom(byDoctor, appointment.getDoctorCRM(), appointment);
+        NavigableMap<Long, List<Appointment>> timeline = byDoctorTime.get(appointment.getDoctorCRM());
+        if (timeline != null) {
+            removeFrom(timeline, minuteOf(appointment.getDate(), appointment.getTime()), appointment);
+            if (timeline.isEmpty()) {
+                byDoctorTime.remove(appointment.getDoctorCRM());
+            }
+        }
+        removeFrom(byDateTime, LocalDateTime.of(appointment.getDate(), appointment.getTime()), appointment);
+        if (appointment.getStatus() == AppointmentStatus.PENDING) {
+            calendar.release(appointment);
+        }
+    }
+
+    private static long minuteOf(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * 24 * 60 + time.getHour() * 60 + time.getMinute();
+    }
+
+    private static <K> void removeFrom(Map<K, List<Appointment>> index, K key, Appointment appointment) {
+        List<Appointment> list = index.get(key);
+        if (list == null) {
+            return;
+        }
+        list.removeIf(app -> app == appointment);
+        if (list.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marca em segundo plano as consultas pendentes como realizadas quando o
+ * horário de término delas (início + duração) passa.
+ *
+ * As consultas ficam numa {@link TimerWheel} por minuto de término; a cada
+ * minuto só as que venceram são examinadas, sem percorrer todas as consultas.
+ * Consultas novas e remarcadas são acrescentadas a partir do log de
+ * alterações do repositório, lido por um leitor próprio
+ * ({@link AppointmentRepository#openChangeCursor()}).
+ * Consultas canceladas ou substituídas continuam na roda e são descartadas
+ * quando vencem, pois o repositório só altera as que ainda estão pendentes.
+ *
+ * As consultas que vencem no mesmo avanço são marcadas juntas, com uma única
+ * gravação no diário ({@link AppointmentRepository#completeAll(List)}), e os
+ * índices do repositório (agenda dos médicos) são atualizados na mesma hora.
+ */
+public class AppointmentStatusScheduler implements AutoCloseable {
+
+    private final AppointmentRepository repository;
+    private final TimerWheel<Appointment> wheel;
+    private final ScheduledExecutorService executor;
+    private final AppointmentRepository.ChangeCursor changes;
+
+    /**
+     * Agenda as consultas pendentes do repositório, marca imediatamente como
+     * realizadas as que já terminaram e inicia a verificação a cada minuto
+     *
+     * @param repository Repositório de consultas
+     */
+    public AppointmentStatusScheduler(AppointmentRepository repository) {
+        this(repository, true);
+    }
+
+    /**
+     * Agenda as consultas pendentes do repositório e marca imediatamente como
+     * realizadas as que já terminaram
+     *
+     * @param repository Repositório de consultas
+     * @param background Se true, verifica a cada minuto em segundo plano; se
+     *                   false, só quando {@link #advance()} for chamado (ex.:
+     *                   em simulações com relógio virtual, ver {@link AppClock})
+     */
+    AppointmentStatusScheduler(AppointmentRepository repository, boolean background) {
+        this.repository = repository;
+        this.wheel = new TimerWheel<>(currentMinute());
+
+        synchronized (repository) {
+            changes = repository.openChangeCursor();
+            for (Appointment appointment : repository.getAll()) {
+                schedule(appointment);
+            }
+        }
+        int completed = advance();
+        if (completed > 0) {
+            System.out.println(completed + " consulta(s) já ocorrida(s) marcada(s) como realizada(s).");
+        }
+
+        if (!background) {
+            this.executor = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-consultas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::advanceInBackground, 1, 1, TimeUnit.MINUTES);
+    }
+
+    private void advanceInBackground() {
+        // Uma exceção que escape da tarefa cancela as execuções seguintes
+        try {
+            advance();
+        } catch (Exception e) {
+            System.err.println("Erro inesperado ao atualizar o status das consultas:");
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Acrescenta as consultas criadas ou remarcadas desde o último avanço e
+     * marca como realizadas as que terminaram até agora
+     *
+     * @return Número de consultas marcadas como realizadas
+     */
+    public synchronized int advance() {
+        for (AppointmentChange change : changes.poll()) {
+            schedule(change.getNewAppointment());
+        }
+
+        List<Appointment> due = new ArrayList<>();
+        wheel.advanceTo(currentMinute(), due::add);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        try {
+            return repository.completeAll(due).size();
+        } catch (IOException e) {
+            System.out.println("Erro ao atualizar o status das consultas: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Retorna o número de consultas aguardando o horário de término
+     *
+     * @return Quantidade de consultas agendadas na roda
+     */
+    public synchronized int getScheduledCount() {
+        return wheel.size();
+    }
+
+    private void schedule(Appointment appointment) {
+        if (appointment.getStatus() == AppointmentStatus.PENDING) {
+            wheel.schedule(appointment, endMinute(appointment));
+        }
+    }
+
+    private static long endMinute(Appointment appointment) {
+        LocalDateTime start = LocalDateTime.of(appointment.getDate(), appointment.getTime());
+        return start.toEpochSecond(ZoneOffset.UTC) / 60 + appointment.getDurationMinutes();
+    }
+
+    private static long currentMinute() {
+        return AppClock.now().toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        changes.close();
+    }
+}
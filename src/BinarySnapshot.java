@@ -0,0 +1,463 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário de pacientes, médicos e consultas, usado para acelerar a
+ * inicialização: em vez de interpretar os três CSVs, o arquivo é lido de uma
+ * vez para a memória e percorrido sequencialmente.
+ *
+ * Cada seção guarda o nome e a marca ({@link FileStamp}) do CSV de onde veio
+ * e só é usada se o CSV não tiver mudado desde então; caso contrário, quem
+ * chama volta a ler o CSV. O arquivo tem número de versão e CRC32 de todo o
+ * conteúdo; snapshots de outra versão ou corrompidos são ignorados.
+ *
+ * Formato: magic, versão, seções (pacientes, médicos, consultas), índice com
+ * nome, marca e posição de cada seção, e por fim a posição do índice e o CRC32.
+ *
+ * O arquivo não é mapeado em memória: no Windows, um arquivo com mapeamento
+ * ativo não pode ser substituído, e o snapshot lido na inicialização continua
+ * em uso enquanto um novo é gravado sobre ele.
+ */
+public final class BinarySnapshot {
+
+    private static final int MAGIC = 0x4D415053; // "MAPS"
+    private static final int VERSION = 3; // 2: ID das consultas; 3: duração
+    private static final int TRAILER_BYTES = Long.BYTES * 2;
+    private static final int SECTIONS = 3;
+    private static final int PATIENTS = 0;
+    private static final int DOCTORS = 1;
+    private static final int APPOINTMENTS = 2;
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    /** Faixa de datas (1900 a 2199) cujas instâncias são reaproveitadas na leitura */
+    private static final int FIRST_CACHED_DAY = (int) LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final int CACHED_DAYS = (int) (LocalDate.of(2200, 1, 1).toEpochDay() - FIRST_CACHED_DAY);
+
+    private final ByteBuffer buffer;
+    private final String[] filenames = new String[SECTIONS];
+    private final FileStamp[] stamps = new FileStamp[SECTIONS];
+    private final int[] offsets = new int[SECTIONS];
+
+    private BinarySnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre um snapshot binário e valida versão e CRC32
+     *
+     * @param filename Nome do arquivo do snapshot
+     * @return Snapshot aberto, ou null se não existir ou for inválido
+     */
+    public static BinarySnapshot read(String filename) {
+        Path path = Paths.get(filename);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_BYTES + Integer.BYTES * 2 || size > Integer.MAX_VALUE) {
+                System.out.println("Snapshot binário com tamanho inválido; carregando os arquivos CSV.");
+                return null;
+            }
+            // Leitura única e sequencial; o arquivo não fica aberto nem mapeado depois
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    System.out.println("Snapshot binário truncado durante a leitura; carregando os arquivos CSV.");
+                    return null;
+                }
+            }
+            buffer.clear();
+            int dataEnd = (int) size - TRAILER_BYTES;
+            long indexOffset = buffer.getLong(dataEnd);
+            long crc = buffer.getLong(dataEnd + Long.BYTES);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                System.out.println("Snapshot binário de versão desconhecida; carregando os arquivos CSV.");
+                return null;
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(0).limit(dataEnd));
+            if (checksum.getValue() != crc || indexOffset < 0 || indexOffset >= dataEnd) {
+                System.out.println("Snapshot binário corrompido; carregando os arquivos CSV.");
+                return null;
+            }
+
+            BinarySnapshot snapshot = new BinarySnapshot(buffer);
+            buffer.position((int) indexOffset);
+            for (int i = 0; i < SECTIONS; i++) {
+                snapshot.filenames[i] = readString(buffer);
+                snapshot.stamps[i] = FileStamp.of(buffer.getLong(), buffer.getLong());
+                snapshot.offsets[i] = buffer.getInt();
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Erro ao ler o snapshot binário: " + e.getMessage() + "; carregando os arquivos CSV.");
+            return null;
+        }
+    }
+
+    /**
+     * Retorna os pacientes do snapshot, se o CSV de pacientes não mudou
+     *
+     * @param filename Nome do arquivo CSV de pacientes
+     * @return Lista de pacientes, ou null se o snapshot não corresponder ao CSV atual
+     */
+    public List<Patient> getPatients(String filename) {
+        if (!isCurrent(PATIENTS, filename)) {
+            return null;
+        }
+        ByteBuffer in = section(PATIENTS);
+        int count = in.getInt();
+        List<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            patients.add(new Patient(name, readString(in)));
+        }
+        return patients;
+    }
+
+    /**
+     * Retorna os médicos do snapshot, se o CSV de médicos não mudou
+     *
+     * @param filename Nome do arquivo CSV de médicos
+     * @return Lista de médicos, ou null se o snapshot não corresponder ao CSV atual
+     */
+    public List<Doctor> getDoctors(String filename) {
+        if (!isCurrent(DOCTORS, filename)) {
+            return null;
+        }
+        ByteBuffer in = section(DOCTORS);
+        int count = in.getInt();
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            doctors.add(new Doctor(name, readString(in)));
+        }
+        return doctors;
+    }
+
+    /**
+     * Retorna a marca do CSV de médicos gravada no snapshot
+     *
+     * @return Marca do arquivo de médicos
+     */
+    public FileStamp getDoctorsStamp() {
+        return stamps[DOCTORS];
+    }
+
+    /**
+     * Retorna as consultas do snapshot, se o CSV de consultas não mudou
+     *
+     * @param filename Nome do arquivo CSV de consultas
+     * @return Lista de consultas na ordem do CSV, ou null se o snapshot não corresponder ao CSV atual
+     */
+    public List<Appointment> getAppointments(String filename) {
+        if (!isCurrent(APPOINTMENTS, filename)) {
+            return null;
+        }
+        ByteBuffer in = section(APPOINTMENTS);
+        String[] cpfs = readDictionary(in);
+        String[] crms = readDictionary(in);
+
+        // Datas e horas repetidas reutilizam a mesma instância, como no carregamento do CSV
+        LocalDate[] dates = new LocalDate[CACHED_DAYS];
+        LocalTime[] times = new LocalTime[MINUTES_PER_DAY];
+
+        int count = in.getInt();
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.getLong();
+            int minute = in.getInt();
+            String cpf = cpfs[in.getInt()];
+            String crm = crms[in.getInt()];
+            AppointmentStatus status = STATUSES[in.get()];
+            int duration = in.getShort();
+
+            int epochDay = Math.floorDiv(minute, MINUTES_PER_DAY);
+            int minuteOfDay = Math.floorMod(minute, MINUTES_PER_DAY);
+            int slot = epochDay - FIRST_CACHED_DAY;
+            LocalDate date;
+            if (slot >= 0 && slot < CACHED_DAYS) {
+                date = dates[slot];
+                if (date == null) {
+                    date = LocalDate.ofEpochDay(epochDay);
+                    dates[slot] = date;
+                }
+            } else {
+                date = LocalDate.ofEpochDay(epochDay);
+            }
+            LocalTime time = times[minuteOfDay];
+            if (time == null) {
+                time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+                times[minuteOfDay] = time;
+            }
+            Appointment appointment = new Appointment(date, time, cpf, crm, status, duration);
+            appointment.setId(id);
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    /**
+     * Verifica se todas as seções do snapshot correspondem aos CSVs atuais
+     *
+     * @return true se nenhum CSV mudou desde a gravação
+     */
+    public boolean isCurrent() {
+        for (int i = 0; i < SECTIONS; i++) {
+            if (stamps[i].changed(filenames[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Grava o snapshot com os pacientes e médicos carregados e as consultas do
+     * repositório. O diário é compactado antes, para que as consultas gravadas
+     * correspondam ao CSV. A gravação é feita em arquivo temporário e depois
+     * movida sobre o snapshot anterior; se falhar, o temporário é apagado e o
+     * snapshot anterior fica intacto.
+     *
+     * @param filename Nome do arquivo do snapshot
+     * @param patientsFilename Nome do arquivo CSV de pacientes
+     * @param patients Pacientes carregados do CSV
+     * @param patientsStamp Marca do CSV de pacientes no momento da leitura
+     * @param repository Repositório de consultas aberto com diário
+     * @throws IOException se ocorrer erro ao gravar o arquivo
+     */
+    public static void write(String filename, String patientsFilename, List<Patient> patients,
+                             FileStamp patientsStamp, AppointmentRepository repository) throws IOException {
+        List<Doctor> doctors = DoctorDirectory.getDoctors();
+        FileStamp doctorsStamp = DoctorDirectory.getLoadedStamp();
+        if (doctorsStamp == null) {
+            // Cadastro invalidado entre as duas chamadas: a seção de médicos já nasce desatualizada
+            doctorsStamp = FileStamp.of(0, 0);
+        }
+
+        Path target = Paths.get(filename);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            writeTemp(temp, patientsFilename, patients, patientsStamp, repository, doctors, doctorsStamp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static void writeTemp(Path temp, String patientsFilename, List<Patient> patients, FileStamp patientsStamp,
+                                  AppointmentRepository repository, List<Doctor> doctors,
+                                  FileStamp doctorsStamp) throws IOException {
+        CRC32 checksum = new CRC32();
+        long[] offsets = new long[SECTIONS];
+        FileStamp appointmentsStamp;
+
+        try (CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(temp));
+             CheckedOutputStream checked = new CheckedOutputStream(counter, checksum);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.flush();
+            offsets[PATIENTS] = counter.count;
+            out.writeInt(patients.size());
+            for (Patient patient : patients) {
+                writeString(out, patient.getName());
+                writeString(out, patient.getCpf());
+            }
+
+            out.flush();
+            offsets[DOCTORS] = counter.count;
+            out.writeInt(doctors.size());
+            for (Doctor doctor : doctors) {
+                writeString(out, doctor.getName());
+                writeString(out, doctor.getCode());
+            }
+
+            out.flush();
+            offsets[APPOINTMENTS] = counter.count;
+            // Bloqueia alterações enquanto compacta e grava, para que as consultas correspondam ao CSV
+            synchronized (repository) {
+                repository.compact();
+                appointmentsStamp = FileStamp.of(repository.getFilename());
+                writeAppointments(out, repository.getAll());
+            }
+
+            out.flush();
+            long indexOffset = counter.count;
+            writeIndexEntry(out, patientsFilename, patientsStamp, offsets[PATIENTS]);
+            writeIndexEntry(out, DoctorDirectory.getFilename(), doctorsStamp, offsets[DOCTORS]);
+            writeIndexEntry(out, repository.getFilename(), appointmentsStamp, offsets[APPOINTMENTS]);
+            out.flush();
+
+            // Posição do índice e CRC32 de tudo o que veio antes, fora da soma
+            DataOutputStream trailer = new DataOutputStream(counter);
+            trailer.writeLong(indexOffset);
+            trailer.writeLong(checksum.getValue());
+            trailer.flush();
+        }
+    }
+
+    /**
+     * Atualiza o snapshot a partir do repositório, reaproveitando os pacientes
+     * do snapshot anterior se o CSV de pacientes não mudou. Usado na gravação
+     * periódica, em segundo plano; erros são apenas informados.
+     *
+     * @param filename Nome do arquivo do snapshot
+     * @param patientsFilename Nome do arquivo CSV de pacientes
+     * @param repository Repositório de consultas aberto com diário
+     */
+    public static void refresh(String filename, String patientsFilename, AppointmentRepository repository) {
+        try {
+            BinarySnapshot previous = read(filename);
+            List<Patient> patients = previous == null ? null : previous.getPatients(patientsFilename);
+            FileStamp patientsStamp = previous == null ? null : previous.stamps[PATIENTS];
+            if (patients == null) {
+                patientsStamp = FileStamp.of(patientsFilename);
+                patients = Patient.loadFromCSV(patientsFilename);
+            }
+            write(filename, patientsFilename, patients, patientsStamp, repository);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Erro ao gravar o snapshot binário: " + e.getMessage());
+        }
+    }
+
+    private boolean isCurrent(int section, String filename) {
+        return filenames[section].equals(filename) && !stamps[section].changed(filename);
+    }
+
+    private ByteBuffer section(int section) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offsets[section]);
+        return in;
+    }
+
+    private static void writeAppointments(DataOutputStream out, List<Appointment> appointments) throws IOException {
+        // CPFs e CRMs em dicionário: cada consulta guarda só os códigos
+        Map<String, Integer> cpfCodes = new HashMap<>();
+        Map<String, Integer> crmCodes = new HashMap<>();
+        List<String> cpfs = new ArrayList<>();
+        List<String> crms = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            if (cpfCodes.putIfAbsent(appointment.getPatientCPF(), cpfs.size()) == null) {
+                cpfs.add(appointment.getPatientCPF());
+            }
+            if (crmCodes.putIfAbsent(appointment.getDoctorCRM(), crms.size()) == null) {
+                crms.add(appointment.getDoctorCRM());
+            }
+        }
+        writeDictionary(out, cpfs);
+        writeDictionary(out, crms);
+
+        out.writeInt(appointments.size());
+        for (Appointment appointment : appointments) {
+            LocalDateTime dateTime = LocalDateTime.of(appointment.getDate(), appointment.getTime());
+            out.writeLong(appointment.getId());
+            out.writeInt(Math.toIntExact(dateTime.toEpochSecond(ZoneOffset.UTC) / 60));
+            out.writeInt(cpfCodes.get(appointment.getPatientCPF()));
+            out.writeInt(crmCodes.get(appointment.getDoctorCRM()));
+            out.writeByte(appointment.getStatus().ordinal());
+            out.writeShort(appointment.getDurationMinutes());
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+
+    private static void writeIndexEntry(DataOutputStream out, String filename, FileStamp stamp,
+                                        long offset) throws IOException {
+        writeString(out, filename);
+        out.writeLong(stamp.getSize());
+        out.writeLong(stamp.getLastModified());
+        out.writeInt(Math.toIntExact(offset));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Conta os bytes gravados, para registrar a posição de cada seção
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream out;
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento colunar de consultas, alternativo ao {@link AppointmentRepository}
+ * para volumes muito grandes. Cada consulta ocupa uma linha em arrays primitivos
+ * paralelos, sem objetos por consulta:
+ * <ul>
+ *     <li>ID da consulta ({@code int});</li>
+ *     <li>data/hora em minutos desde 1970-01-01T00:00 ({@code int}, ±4000 anos);</li>
+ *     <li>CPF do paciente, status e duração num só {@code long}: o CPF como
+ *     número nos 37 bits baixos (11 dígitos cabem em 37 bits), o ordinal de
+ *     {@link AppointmentStatus} nos 3 seguintes e a duração em minutos nos 16
+ *     acima deles;</li>
+ *     <li>CRM do médico codificado em dicionário ({@code int}).</li>
+ * </ul>
+ * São 20 bytes por consulta (cerca de 1 GB para 50 milhões de consultas),
+ * contra mais de 150 bytes na representação com objetos. As buscas percorrem
+ * os arrays sequencialmente e só criam objetos {@link Appointment} para as
+ * consultas encontradas.
+ */
+public class ColumnarAppointmentStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+    // Posição dos campos na coluna combinada de CPF, status e duração
+    private static final long CPF_MASK = (1L << 37) - 1;
+    private static final int STATUS_SHIFT = 37;
+    private static final long STATUS_MASK = 0b111L << STATUS_SHIFT;
+    private static final int DURATION_SHIFT = 40;
+    private static final long PENDING_BITS = (long) AppointmentStatus.PENDING.ordinal() << STATUS_SHIFT;
+
+    private int[] ids;
+    private int[] minutes;
+    private long[] cpfStatusDurations;
+    private int[] crmCodes;
+    private int size;
+
+    // Dicionário de CRMs: código → CRM e CRM → código
+    private final List<String> crmValues = new ArrayList<>();
+    private final Map<String, Integer> crmIndex = new HashMap<>();
+
+    /**
+     * Cria um armazenamento vazio
+     */
+    public ColumnarAppointmentStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Cria um armazenamento vazio com capacidade inicial
+     *
+     * @param capacity Número de consultas previsto
+     */
+    public ColumnarAppointmentStore(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new int[capacity];
+        minutes = new int[capacity];
+        cpfStatusDurations = new long[capacity];
+        crmCodes = new int[capacity];
+    }
+
+    /**
+     * Carrega as consultas de um arquivo CSV diretamente para as colunas,
+     * sem manter objetos por consulta
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Armazenamento com as consultas carregadas, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static ColumnarAppointmentStore loadFromCSV(String filename) throws IOException {
+        ColumnarAppointmentStore store = new ColumnarAppointmentStore();
+        MappedCsvLoader.AppointmentParser parser = new MappedCsvLoader.AppointmentParser(System.out::println);
+        MappedCsvLoader.forEachLine(filename, (buffer, start, end) -> {
+            Appointment appointment = parser.parse(buffer, start, end);
+            if (appointment != null) {
+                store.add(appointment);
+            }
+        });
+        return store;
+    }
+
+    /**
+     * Acrescenta uma consulta ao armazenamento
+     *
+     * @param appointment Consulta a ser adicionada
+     * @return Número da linha da consulta
+     * @throws IllegalArgumentException se o CPF não tiver 11 dígitos ou o ID não couber em um {@code int}
+     */
+    public int add(Appointment appointment) {
+        if (!Patient.isValidCPF(appointment.getPatientCPF())) {
+            throw new IllegalArgumentException("CPF inválido: " + appointment.getPatientCPF());
+        }
+        long id = appointment.getId();
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ID fora da faixa do armazenamento colunar: " + id);
+        }
+        if (size == minutes.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = (int) id;
+        minutes[row] = toMinute(appointment.getDate(), appointment.getTime());
+        cpfStatusDurations[row] = Long.parseLong(appointment.getPatientCPF())
+                | (long) appointment.getStatus().ordinal() << STATUS_SHIFT
+                | (long) (appointment.getDurationMinutes() & 0xFFFF) << DURATION_SHIFT;
+        crmCodes[row] = crmCode(appointment.getDoctorCRM());
+        return row;
+    }
+
+    /**
+     * Retorna a consulta de uma linha
+     *
+     * @param row Número da linha
+     * @return Nova instância de consulta com os dados da linha
+     */
+    public Appointment get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Linha " + row + " de " + size);
+        }
+        LocalDateTime dateTime = toDateTime(minutes[row]);
+        long packed = cpfStatusDurations[row];
+        Appointment appointment = new Appointment(dateTime.toLocalDate(), dateTime.toLocalTime(),
+                formatCPF(packed & CPF_MASK), crmValues.get(crmCodes[row]),
+                STATUSES[(int) ((packed & STATUS_MASK) >>> STATUS_SHIFT)], duration(row));
+        appointment.setId(ids[row]);
+        return appointment;
+    }
+
+    /**
+     * Altera o status da consulta de uma linha
+     *
+     * @param row Número da linha
+     * @param status Novo status
+     */
+    public void setStatus(int row, AppointmentStatus status) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Linha " + row + " de " + size);
+        }
+        cpfStatusDurations[row] = (cpfStatusDurations[row] & ~STATUS_MASK) | (long) status.ordinal() << STATUS_SHIFT;
+    }
+
+    /**
+     * Retorna o número de consultas armazenadas
+     *
+     * @return Quantidade de consultas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retorna as consultas de um paciente, na ordem de inserção
+     *
+     * @param patientCPF CPF do paciente
+     * @param pendingOnly Se true, retorna apenas consultas pendentes
+     * @return Lista de consultas do paciente
+     */
+    public List<Appointment> findByPatient(String patientCPF, boolean pendingOnly) {
+        List<Appointment> result = new ArrayList<>();
+        if (!Patient.isValidCPF(patientCPF)) {
+            return result;
+        }
+        long cpf = Long.parseLong(patientCPF);
+        for (int row = 0; row < size; row++) {
+            if ((cpfStatusDurations[row] & CPF_MASK) == cpf && matchesStatus(row, pendingOnly)) {
+                result.add(get(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna as consultas de um médico, na ordem de inserção
+     *
+     * @param doctorCRM CRM do médico
+     * @param pendingOnly Se true, retorna apenas consultas pendentes
+     * @return Lista de consultas do médico
+     */
+    public List<Appointment> findByDoctor(String doctorCRM, boolean pendingOnly) {
+        List<Appointment> result = new ArrayList<>();
+        Integer code = crmIndex.get(doctorCRM);
+        if (code == null) {
+            return result;
+        }
+        int crm = code;
+        for (int row = 0; row < size; row++) {
+            if (crmCodes[row] == crm && matchesStatus(row, pendingOnly)) {
+                result.add(get(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna as consultas entre duas datas (inclusive), ordenadas por data e hora
+     *
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @param pendingOnly Se true, retorna apenas consultas pendentes
+     * @return Lista de consultas do período
+     */
+    public List<Appointment> findInPeriod(LocalDate startDate, LocalDate endDate, boolean pendingOnly) {
+        List<Appointment> result = new ArrayList<>();
+        if (endDate.isBefore(startDate)) {
+            return result;
+        }
+        int from = toMinute(startDate, LocalTime.MIDNIGHT);
+        int to = toMinute(endDate.plusDays(1), LocalTime.MIDNIGHT);
+
+        // Primeiro as linhas, ordenadas pelo minuto; depois os objetos
+        long[] matches = new long[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int minute = minutes[row];
+            if (minute >= from && minute < to && matchesStatus(row, pendingOnly)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                // Minuto na parte alta e linha na baixa: a ordenação mantém a ordem de inserção no mesmo horário
+                matches[count++] = ((long) minute << 32) | row;
+            }
+        }
+        Arrays.sort(matches, 0, count);
+        for (int i = 0; i < count; i++) {
+            result.add(get((int) matches[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Conta as consultas pendentes de um médico, sem criar objetos
+     *
+     * @param doctorCRM CRM do médico
+     * @return Número de consultas pendentes
+     */
+    public int countPendingByDoctor(String doctorCRM) {
+        Integer code = crmIndex.get(doctorCRM);
+        if (code == null) {
+            return 0;
+        }
+        int crm = code;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (crmCodes[row] == crm && (cpfStatusDurations[row] & STATUS_MASK) == PENDING_BITS) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Verifica se o médico já possui consulta pendente que se sobreponha a uma
+     * consulta de duração padrão no horário informado
+     *
+     * @param doctorCRM CRM do médico
+     * @param date Data desejada
+     * @param time Hora desejada
+     * @return true se houver conflito de horário
+     */
+    public boolean hasConflict(String doctorCRM, LocalDate date, LocalTime time) {
+        return hasConflict(doctorCRM, date, time, Appointment.DEFAULT_DURATION_MINUTES);
+    }
+
+    /**
+     * Verifica se o médico já possui consulta pendente que se sobreponha ao intervalo informado
+     *
+     * @param doctorCRM CRM do médico
+     * @param date Data desejada
+     * @param time Hora desejada
+     * @param durationMinutes Duração desejada em minutos
+     * @return true se houver conflito de horário
+     */
+    public boolean hasConflict(String doctorCRM, LocalDate date, LocalTime time, int durationMinutes) {
+        Integer code = crmIndex.get(doctorCRM);
+        if (code == null) {
+            return false;
+        }
+        int crm = code;
+        int start = toMinute(date, time);
+        int end = start + durationMinutes;
+        for (int row = 0; row < size; row++) {
+            if (minutes[row] < end && minutes[row] + duration(row) > start
+                    && crmCodes[row] == crm && (cpfStatusDurations[row] & STATUS_MASK) == PENDING_BITS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna o espaço ocupado pelas colunas (sem o dicionário de CRMs)
+     *
+     * @return Tamanho aproximado em bytes
+     */
+    public long getColumnBytes() {
+        return (long) minutes.length * (Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES);
+    }
+
+    private boolean matchesStatus(int row, boolean pendingOnly) {
+        return !pendingOnly || (cpfStatusDurations[row] & STATUS_MASK) == PENDING_BITS;
+    }
+
+    private int duration(int row) {
+        // Os 16 bits da duração são lidos com sinal, como um short
+        return (short) (cpfStatusDurations[row] >>> DURATION_SHIFT);
+    }
+
+    private int crmCode(String crm) {
+        Integer code = crmIndex.get(crm);
+        if (code == null) {
+            code = crmValues.size();
+            crmValues.add(crm);
+            crmIndex.put(crm, code);
+        }
+        return code;
+    }
+
+    private void grow() {
+        int capacity = minutes.length + (minutes.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        minutes = Arrays.copyOf(minutes, capacity);
+        cpfStatusDurations = Arrays.copyOf(cpfStatusDurations, capacity);
+        crmCodes = Arrays.copyOf(crmCodes, capacity);
+    }
+
+    private static int toMinute(LocalDate date, LocalTime time) {
+        // Consultas são marcadas em minutos inteiros (HH:mm)
+        return Math.toIntExact(LocalDateTime.of(date, time).toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static LocalDateTime toDateTime(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static String formatCPF(long cpf) {
+        char[] digits = new char[11];
+        for (int i = 10; i >= 0; i--) {
+            digits[i] = (char) ('0' + cpf % 10);
+            cpf /= 10;
+        }
+        return new String(digits);
+    }
+}
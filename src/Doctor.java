@@ -1,8 +1,6 @@
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 public class Doctor {
 
@@ -33,6 +31,15 @@ public class Doctor {
         this.code = code;
     }
 
+    /**
+     * Verifica se o médico foi removido pelo administrador (marcado com "(Removido)" no nome)
+     *
+     * @return true se o médico estiver removido
+     */
+    public boolean isRemoved() {
+        return name != null && name.contains("(Removido)");
+    }
+
     /**
      * Valida se um CRM tem o formato correto
      *
@@ -45,37 +52,18 @@ public class Doctor {
 
     // Método para carregar lista de médicos do CSV
     public static List<Doctor> loadFromCSV(String filename) {
-        List<Doctor> doctors = new ArrayList<>();
-
-        // MELHORIA 5: uso de try-with-resources
-        try (Scanner scanner = new Scanner(new File(filename))) {
-            // Pular o cabeçalho
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
-            }
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                try {
-                    String[] parts = line.split(",");
-                    if (parts.length < 2) continue;
-
-                    String name = parts[0].trim();
-                    String code = parts[1].trim(); // MELHORIA 1: mantido como string
-
-                    doctors.add(new Doctor(name, code));
-                } catch (NumberFormatException e) { // MELHORIA 4: exceção específica
-                    System.out.println("Erro de formatação no código: " + e.getMessage());
-                } catch (ArrayIndexOutOfBoundsException e) {
-                    System.out.println("Erro de formato no CSV: " + e.getMessage());
-                }
-            }
+        JfrEvents.CsvRead event = JfrEvents.startCsvRead();
+        List<Doctor> doctors;
+        // Leitura via arquivo mapeado em memória (ver MappedCsvLoader)
+        try {
+            doctors = MappedCsvLoader.loadDoctors(filename);
         } catch (IOException e) { // MELHORIA 4
             System.out.println("Erro ao carregar os médicos: " + e.getMessage());
+            doctors = new ArrayList<>();
+        }
+        if (event != null) {
+            event.finish(filename, doctors.size());
         }
-
         return doctors;
     }
 
@@ -0,0 +1,337 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Agenda das consultas pendentes de cada médico, com duas estruturas:
+ * <ul>
+ *     <li>Índice de intervalos: as consultas ordenadas pelo início, junto com a
+ *     maior duração já vista do médico. As consultas que se sobrepõem a um
+ *     intervalo [início, fim) são as que começam entre início − maior duração
+ *     e fim, obtidas com uma busca no {@link TreeMap} (O(log n + k)).</li>
+ *     <li>Mapa de bits: cada dia tem 96 faixas de 15 minutos, guardadas em dois
+ *     {@code long}; uma faixa fica marcada enquanto alguma consulta ocupar parte
+ *     dela. Os dias são agrupados em blocos mensais, criados só para os meses
+ *     em que o médico tem consultas (cerca de 500 bytes por médico e mês).
+ *     Faixas ocupadas por mais de uma consulta são contadas à parte, para que
+ *     a liberação de uma delas não libere a faixa enquanto houver outra.</li>
+ * </ul>
+ *
+ * A verificação de conflito usa o índice de intervalos, que é exato para
+ * qualquer horário e duração. A busca de horários livres usa o mapa de bits:
+ * percorre o complemento dos bits dentro do expediente, pulando de faixa
+ * livre em faixa livre com {@link Long#numberOfTrailingZeros(long)}, e exige
+ * tantas faixas livres seguidas quantas a duração pedida ocupar.
+ */
+public class DoctorCalendar {
+
+    private static final int SLOT_MINUTES = 15;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = 2; // 96 faixas por dia
+    private static final int WORDS_PER_MONTH = 31 * WORDS_PER_DAY;
+    private static final int SLOTS_PER_DAY = MINUTES_PER_DAY / SLOT_MINUTES;
+
+    /** Início do expediente (primeiro horário oferecido) */
+    public static final LocalTime WORK_START = LocalTime.of(8, 0);
+    /** Fim do expediente (as consultas oferecidas terminam até este horário) */
+    public static final LocalTime WORK_END = LocalTime.of(18, 0);
+    /** Limite de dias percorridos na busca de horários livres */
+    private static final int MAX_SEARCH_DAYS = 366;
+
+    private final Map<String, Slots> doctors = new HashMap<>();
+
+    /**
+     * Registra a consulta na agenda do médico
+     *
+     * @param appointment Consulta pendente
+     */
+    public void book(Appointment appointment) {
+        doctors.computeIfAbsent(appointment.getDoctorCRM(), crm -> new Slots()).book(appointment);
+    }
+
+    /**
+     * Retira a consulta da agenda do médico
+     *
+     * @param appointment Consulta registrada anteriormente com {@link #book(Appointment)}
+     */
+    public void release(Appointment appointment) {
+        Slots slots = doctors.get(appointment.getDoctorCRM());
+        if (slots != null) {
+            slots.release(appointment);
+        }
+    }
+
+    /**
+     * Retorna as consultas do médico que se sobrepõem ao intervalo informado
+     *
+     * @param doctorCRM CRM do médico
+     * @param date Data de início do intervalo
+     * @param time Hora de início do intervalo
+     * @param durationMinutes Duração do intervalo em minutos
+     * @return Consultas sobrepostas, em ordem de início
+     */
+    public List<Appointment> overlapping(String doctorCRM, LocalDate date, LocalTime time, int durationMinutes) {
+        List<Appointment> result = new ArrayList<>();
+        Slots slots = doctors.get(doctorCRM);
+        if (slots == null) {
+            return result;
+        }
+        long start = minuteOf(date, time);
+        long end = start + durationMinutes;
+        for (List<Appointment> atStart : slots.byStart.subMap(start - slots.maxDuration, false, end, false).values()) {
+            for (Appointment appointment : atStart) {
+                if (minuteOf(appointment.getDate(), appointment.getTime()) + appointment.getDurationMinutes() > start) {
+                    result.add(appointment);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna os próximos horários livres do médico para uma consulta da
+     * duração informada, dentro do expediente, a partir do instante informado
+     * (inclusive, arredondado para a próxima faixa de 15 minutos)
+     *
+     * @param doctorCRM CRM do médico
+     * @param from Instante a partir do qual buscar
+     * @param count Número máximo de horários a retornar
+     * @param durationMinutes Duração da consulta a marcar
+     * @return Horários livres em ordem cronológica (pode ter menos que count
+     *         se o limite de dias da busca for atingido)
+     */
+    public List<LocalDateTime> nextFreeSlots(String doctorCRM, LocalDateTime from, int count, int durationMinutes) {
+        List<LocalDateTime> result = new ArrayList<>(Math.max(count, 0));
+        FreeSlotCursor cursor = new FreeSlotCursor(doctorCRM, 0, from, durationMinutes);
+        while (result.size() < count && cursor.advance()) {
+            result.add(cursor.dateTime());
+        }
+        return result;
+    }
+
+    /**
+     * Retorna os horários livres mais próximos considerando vários médicos ao
+     * mesmo tempo. Cada médico tem um cursor que percorre os próprios horários
+     * livres em ordem; os cursores ficam numa fila de prioridade pelo próximo
+     * horário, e a cada passo o mais cedo é retirado, registrado e avançado.
+     * O custo é proporcional a (médicos + count) × log(médicos), independente
+     * do número de consultas marcadas.
+     *
+     * @param doctorCRMs CRMs dos médicos considerados; no mesmo horário, vem
+     *                   primeiro o médico que aparece antes nesta lista
+     * @param from Instante a partir do qual buscar
+     * @param count Número máximo de horários a retornar
+     * @param durationMinutes Duração da consulta a marcar
+     * @return Horários livres em ordem cronológica, com o médico de cada um
+     */
+    public List<FreeSlot> earliestFreeSlots(List<String> doctorCRMs, LocalDateTime from, int count, int durationMinutes) {
+        List<FreeSlot> result = new ArrayList<>(Math.max(count, 0));
+        if (count <= 0 || doctorCRMs.isEmpty()) {
+            return result;
+        }
+        PriorityQueue<FreeSlotCursor> queue = new PriorityQueue<>(doctorCRMs.size(),
+                Comparator.comparingLong((FreeSlotCursor c) -> c.key).thenComparingInt(c -> c.order));
+        for (int i = 0; i < doctorCRMs.size(); i++) {
+            FreeSlotCursor cursor = new FreeSlotCursor(doctorCRMs.get(i), i, from, durationMinutes);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        while (result.size() < count && !queue.isEmpty()) {
+            FreeSlotCursor cursor = queue.poll();
+            result.add(new FreeSlot(cursor.doctorCRM, cursor.dateTime()));
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    private static long minuteOf(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Máscara dos bits da palavra w que correspondem às faixas [low, high)
+     */
+    private static long rangeMask(int w, int low, int high) {
+        int lo = Math.min(Math.max(low - w * Long.SIZE, 0), Long.SIZE);
+        int hi = Math.min(Math.max(high - w * Long.SIZE, 0), Long.SIZE);
+        if (hi <= lo) {
+            return 0L;
+        }
+        long upTo = hi == Long.SIZE ? -1L : (1L << hi) - 1;
+        return upTo & (-1L << lo);
+    }
+
+    /**
+     * Percorre em ordem os horários livres de um médico dentro do expediente
+     */
+    private final class FreeSlotCursor {
+        private final String doctorCRM;
+        private final int order;
+        private final Slots slots;
+        private final int length;  // Faixas livres seguidas necessárias para a duração
+        private final int workStart = slotOf(WORK_START);
+        private final int lastStart; // Última faixa em que a consulta ainda termina no expediente
+        private LocalDate date;
+        private int days;
+        private int low;    // Primeira faixa ainda não examinada no dia atual
+        private int slot;   // Faixa livre atual, válida depois de advance() == true
+        private long key;   // Dia (desde 1970) × faixas por dia + faixa, para ordenar os cursores
+
+        FreeSlotCursor(String doctorCRM, int order, LocalDateTime from, int durationMinutes) {
+            this.doctorCRM = doctorCRM;
+            this.order = order;
+            this.slots = doctors.get(doctorCRM);
+            this.length = Math.max(1, (durationMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES);
+            this.lastStart = slotOf(WORK_END) - length;
+            this.date = from.toLocalDate();
+
+            // Primeira faixa que começa em ou depois de "from"
+            int fromMinute = from.getHour() * 60 + from.getMinute();
+            if (from.getSecond() > 0 || from.getNano() > 0) {
+                fromMinute++;
+            }
+            this.low = Math.max(workStart, (fromMinute + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        }
+
+        /**
+         * Avança para o próximo horário livre
+         *
+         * @return false se o limite de dias da busca foi atingido
+         */
+        boolean advance() {
+            while (days < MAX_SEARCH_DAYS && lastStart >= workStart) {
+                long[] words = slots == null ? null : slots.months.get(Slots.monthKey(date));
+                int base = (date.getDayOfMonth() - 1) * WORDS_PER_DAY;
+                long freeLo = words == null ? -1L : ~words[base];
+                long freeHi = words == null ? -1L : ~words[base + 1];
+
+                // Bit s ligado: as faixas s .. s + length - 1 estão todas livres
+                long runLo = freeLo;
+                long runHi = freeHi;
+                for (int j = 1; j < length; j++) {
+                    runLo &= (freeLo >>> j) | (freeHi << (Long.SIZE - j));
+                    runHi &= freeHi >>> j;
+                }
+                runLo &= rangeMask(0, low, lastStart + 1);
+                runHi &= rangeMask(1, low, lastStart + 1);
+
+                long run = runLo != 0 ? runLo : runHi;
+                if (run != 0) {
+                    slot = (runLo != 0 ? 0 : Long.SIZE) + Long.numberOfTrailingZeros(run);
+                    low = slot + 1;
+                    key = date.toEpochDay() * SLOTS_PER_DAY + slot;
+                    return true;
+                }
+                date = date.plusDays(1);
+                days++;
+                low = workStart;
+            }
+            return false;
+        }
+
+        LocalDateTime dateTime() {
+            int minute = slot * SLOT_MINUTES;
+            return date.atTime(minute / 60, minute % 60);
+        }
+    }
+
+    /**
+     * Agenda de um médico: índice de intervalos, blocos mensais de bits e as
+     * contagens das faixas ocupadas por mais de uma consulta
+     */
+    private static final class Slots {
+        // Início (minuto desde 1970) → consultas que começam nesse minuto
+        private final NavigableMap<Long, List<Appointment>> byStart = new TreeMap<>();
+        // Maior duração registrada; só cresce, o que mantém a busca de sobreposição correta
+        private int maxDuration;
+        private final Map<Integer, long[]> months = new HashMap<>();
+        // Faixa (desde 1970) → ocupações além do bit
+        private final Map<Long, Integer> extra = new HashMap<>();
+
+        void book(Appointment appointment) {
+            long start = minuteOf(appointment.getDate(), appointment.getTime());
+            byStart.computeIfAbsent(start, k -> new ArrayList<>(1)).add(appointment);
+            maxDuration = Math.max(maxDuration, appointment.getDurationMinutes());
+
+            for (long slot = firstSlot(start); slot <= lastSlot(start, appointment); slot++) {
+                long[] words = months.computeIfAbsent(monthKey(slot), k -> new long[WORDS_PER_MONTH]);
+                int word = word(slot);
+                long bit = bit(slot);
+                if ((words[word] & bit) != 0) {
+                    extra.merge(slot, 1, Integer::sum);
+                } else {
+                    words[word] |= bit;
+                }
+            }
+        }
+
+        void release(Appointment appointment) {
+            long start = minuteOf(appointment.getDate(), appointment.getTime());
+            List<Appointment> atStart = byStart.get(start);
+            if (atStart == null || !atStart.removeIf(app -> app == appointment)) {
+                return;
+            }
+            if (atStart.isEmpty()) {
+                byStart.remove(start);
+            }
+
+            for (long slot = firstSlot(start); slot <= lastSlot(start, appointment); slot++) {
+                Integer repeated = extra.get(slot);
+                if (repeated != null) {
+                    if (repeated == 1) {
+                        extra.remove(slot);
+                    } else {
+                        extra.put(slot, repeated - 1);
+                    }
+                    continue;
+                }
+                long[] words = months.get(monthKey(slot));
+                if (words != null) {
+                    words[word(slot)] &= ~bit(slot);
+                }
+            }
+        }
+
+        private static long firstSlot(long start) {
+            return Math.floorDiv(start, SLOT_MINUTES);
+        }
+
+        private static long lastSlot(long start, Appointment appointment) {
+            // Consultas de duração zero ainda ocupam a faixa em que começam
+            return Math.floorDiv(start + Math.max(appointment.getDurationMinutes(), 1) - 1, SLOT_MINUTES);
+        }
+
+        private static int monthKey(long slot) {
+            return monthKey(LocalDate.ofEpochDay(Math.floorDiv(slot, SLOTS_PER_DAY)));
+        }
+
+        static int monthKey(LocalDate date) {
+            return date.getYear() * 12 + date.getMonthValue() - 1;
+        }
+
+        private static int word(long slot) {
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(slot, SLOTS_PER_DAY));
+            int slotOfDay = Math.floorMod(slot, SLOTS_PER_DAY);
+            return (date.getDayOfMonth() - 1) * WORDS_PER_DAY + slotOfDay / Long.SIZE;
+        }
+
+        private static long bit(long slot) {
+            return 1L << (Math.floorMod(slot, SLOTS_PER_DAY) % Long.SIZE);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cadastro de médicos compartilhado pelas telas, indexado por CRM.
+ * O arquivo de médicos é lido uma única vez e mantido em memória até que
+ * seja invalidado ({@link #invalidate()}), o que deve ser feito sempre que o
+ * arquivo for regravado.
+ *
+ * Os objetos {@link Doctor} devolvidos são compartilhados: quem precisar
+ * alterá-los deve carregar a própria cópia com {@link Doctor#loadFromCSV(String)}.
+ */
+public final class DoctorDirectory {
+
+    private static final String DOCTOR_CSV = "doctors_clean.csv";
+
+    private static List<Doctor> doctors;
+    private static Map<String, Doctor> doctorsByCrm;
+    private static FileStamp loadedStamp;
+    private static long hits;
+    private static long misses;
+
+    private DoctorDirectory() {
+    }
+
+    /**
+     * Retorna os médicos cadastrados, na ordem do arquivo
+     *
+     * @return Lista (somente leitura) de médicos
+     */
+    public static synchronized List<Doctor> getDoctors() {
+        ensureLoaded();
+        return doctors;
+    }
+
+    /**
+     * Busca um médico pelo CRM
+     *
+     * @param crm CRM do médico
+     * @return Médico encontrado ou null se não existir
+     */
+    public static synchronized Doctor findByCRM(String crm) {
+        ensureLoaded();
+        return doctorsByCrm.get(crm);
+    }
+
+    /**
+     * Descarta os médicos em memória; a próxima consulta relê o arquivo
+     */
+    public static synchronized void invalidate() {
+        doctors = null;
+        doctorsByCrm = null;
+        loadedStamp = null;
+    }
+
+    /**
+     * Descarta os médicos em memória se o arquivo mudou desde que foram carregados
+     */
+    public static synchronized void invalidateIfChanged() {
+        if (loadedStamp != null && loadedStamp.changed(DOCTOR_CSV)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Preenche o cadastro com médicos já carregados (ex.: do snapshot binário)
+     *
+     * @param loaded Médicos, na ordem do arquivo
+     * @param stamp Marca do arquivo de médicos correspondente
+     */
+    public static synchronized void preload(List<Doctor> loaded, FileStamp stamp) {
+        index(loaded, stamp);
+    }
+
+    /**
+     * Retorna o nome do arquivo de médicos usado pelo cadastro
+     *
+     * @return Nome do arquivo CSV
+     */
+    public static String getFilename() {
+        return DOCTOR_CSV;
+    }
+
+    /**
+     * Retorna a marca do arquivo de médicos no momento em que foi carregado
+     *
+     * @return Marca do arquivo, ou null se o cadastro não estiver carregado
+     */
+    public static synchronized FileStamp getLoadedStamp() {
+        return loadedStamp;
+    }
+
+    /**
+     * Retorna quantas consultas ao cadastro foram atendidas pela memória
+     *
+     * @return Número de acertos
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retorna quantas consultas ao cadastro precisaram ler o arquivo
+     *
+     * @return Número de falhas
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    private static void ensureLoaded() {
+        if (doctors != null) {
+            hits++;
+            return;
+        }
+        misses++;
+        // Marca lida antes do arquivo: se ele mudar durante a leitura, a marca já fica desatualizada
+        long start = Metrics.start();
+        try {
+            FileStamp stamp = FileStamp.of(DOCTOR_CSV);
+            index(Doctor.loadFromCSV(DOCTOR_CSV), stamp);
+        } finally {
+            Metrics.stop("carga.medicos", start);
+        }
+    }
+
+    private static void index(List<Doctor> loaded, FileStamp stamp) {
+        Map<String, Doctor> byCrm = new HashMap<>(loaded.size() * 4 / 3 + 1);
+        for (Doctor doctor : loaded) {
+            // Com CRMs repetidos vale o primeiro do arquivo, como na busca sequencial
+            byCrm.putIfAbsent(doctor.getCode(), doctor);
+        }
+        doctors = Collections.unmodifiableList(loaded);
+        doctorsByCrm = byCrm;
+        loadedStamp = stamp;
+    }
+}
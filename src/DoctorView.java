@@ -1,4 +1,5 @@
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -16,18 +17,16 @@ public class DoctorView {
     // Constantes para arquivos
     //private static final String DOCTOR_CSV = "doctors_clean.csv";
     private static final String PATIENT_CSV = "patients.csv";
-    private static final String APPOINTMENT_CSV = "appointments.csv";
 
     /**
      * Exibe as opções disponíveis para o médico e processa a seleção do usuário
      *
-     * @param doctors Lista de médicos cadastrados no sistema
-     * @param appointments Lista de consultas marcadas
+     * @param appointments Repositório de consultas marcadas
      * @param patients Lista de pacientes cadastrados
      * @param search Flag para controlar o loop do menu
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    public static void checkOptions(List<Doctor> doctors, List<Appointment> appointments, List<Patient> patients, boolean search, Scanner scanner) {
+    public static void checkOptions(AppointmentRepository appointments, List<Patient> patients, boolean search, Scanner scanner) {
         while (search) {
             try {
                 // Solicitar CRM ao médico
@@ -40,7 +39,7 @@ public class DoctorView {
                 }
 
                 // Buscar médico pelo CRM
-                Doctor doctor = findDoctorByCRM(doctors, crm);
+                Doctor doctor = DoctorDirectory.findByCRM(crm);
 
                 if (doctor == null) {
                     System.out.println("Médico não encontrado. Deseja tentar novamente? (s/n): ");
@@ -65,22 +64,6 @@ public class DoctorView {
         }
     }
 
-    /**
-     * Busca um médico pelo CRM na lista de médicos
-     *
-     * @param doctors Lista de médicos
-     * @param crm CRM a ser buscado
-     * @return Médico encontrado ou null se não encontrado
-     */
-    private static Doctor findDoctorByCRM(List<Doctor> doctors, String crm) {
-        for (Doctor d : doctors) {
-            if (d.getCode().equals(crm)) {
-                return d;
-            }
-        }
-        return null;
-    }
-
     /**
      * Exibe o menu principal para o médico e processa a opção escolhida
      *
@@ -89,7 +72,7 @@ public class DoctorView {
      * @param allPatients Todos os pacientes do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void doctorMenu(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void doctorMenu(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         boolean continueMenu = true;
 
         while (continueMenu) {
@@ -100,10 +83,12 @@ public class DoctorView {
                 System.out.println("3 - Ver consultas realizadas");
                 System.out.println("4 - Remarcar consultas");
                 System.out.println("5 - Cancelar consultas agendadas");
+                System.out.println("6 - Ver meus próximos horários livres");
                 System.out.println("0 - Sair");
                 System.out.print("\nEscolha uma opção: ");
 
                 int option = Integer.parseInt(scanner.nextLine());
+                Metrics.increment("menu.medico." + option);
 
                 switch (option) {
                     case 0:
@@ -124,6 +109,9 @@ public class DoctorView {
                     case 5:
                         cancelAppointment(doctor, allAppointments, allPatients, scanner);
                         break;
+                    case 6:
+                        viewNextFreeSlots(doctor, allAppointments);
+                        break;
                     default:
                         System.out.println("Opção inválida!");
                 }
@@ -137,15 +125,39 @@ public class DoctorView {
         }
     }
 
+    /**
+     * Exibe os próximos horários livres do médico dentro do expediente
+     *
+     * @param doctor Médico logado
+     * @param allAppointments Repositório com todas as consultas
+     */
+    private static void viewNextFreeSlots(Doctor doctor, AppointmentRepository allAppointments) {
+        List<LocalDateTime> freeSlots = allAppointments.findNextFreeSlots(
+                doctor.getCode(), AppClock.now(), PatientView.FREE_SLOTS_SHOWN);
+
+        if (freeSlots.isEmpty()) {
+            System.out.println("Você não tem horários livres no próximo ano.");
+            return;
+        }
+
+        System.out.println("\n=== PRÓXIMOS HORÁRIOS LIVRES ===");
+        System.out.println("Expediente: " + DoctorCalendar.WORK_START + " às " + DoctorCalendar.WORK_END);
+        ListRenderer out = new ListRenderer();
+        for (LocalDateTime slot : freeSlots) {
+            out.append("- ").appendDateTime(slot).newLine();
+        }
+        out.flush();
+    }
+
     /**
      * Agenda uma consulta para um paciente (existente ou novo)
      *
      * @param doctor Médico que está agendando a consulta
-     * @param allAppointments Lista de todas as consultas
+     * @param allAppointments Repositório com todas as consultas
      * @param allPatients Lista de todos os pacientes
      * @param scanner Scanner para leitura de entrada
      */
-    private static void scheduleNewAppointment(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void scheduleNewAppointment(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         System.out.println("\n=== AGENDAR NOVA CONSULTA ===");
         System.out.println("1 - Para paciente existente");
         System.out.println("2 - Para novo paciente");
@@ -186,32 +198,32 @@ public class DoctorView {
             System.out.print("Digite o horário da consulta (HH:mm): ");
             String timeStr = scanner.nextLine();
 
+            // Obter duração da consulta
+            System.out.print("Digite a duração da consulta em minutos (Enter para " +
+                    Appointment.DEFAULT_DURATION_MINUTES + "): ");
+            String durationStr = scanner.nextLine().trim();
+            int duration = durationStr.isEmpty() ? Appointment.DEFAULT_DURATION_MINUTES : Integer.parseInt(durationStr);
+            if (!Appointment.isValidDuration(duration)) {
+                System.out.println("Duração inválida. Use múltiplos de 5 minutos, até " +
+                        Appointment.MAX_DURATION_MINUTES + " minutos.");
+                return;
+            }
+
             try {
-                DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+                DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+                DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
                 LocalDate appointmentDate = LocalDate.parse(dateStr, dateFormatter);
                 LocalTime appointmentTime = LocalTime.parse(timeStr, timeFormatter);
 
                 // Verificar se a data é no futuro
-                if (appointmentDate.isBefore(LocalDate.now())) {
+                if (appointmentDate.isBefore(AppClock.today())) {
                     System.out.println("A data da consulta deve ser futura.");
                     return;
                 }
 
                 // Verificar se já existe consulta no mesmo horário para o médico
-                boolean conflictFound = false;
-                for (Appointment app : allAppointments) {
-                    if (app.getDoctorCRM().equals(doctor.getCode()) &&
-                            app.getDate().equals(appointmentDate) &&
-                            app.getTime().equals(appointmentTime) &&
-                            app.getStatus() == AppointmentStatus.PENDING) {
-                        conflictFound = true;
-                        break;
-                    }
-                }
-
-                if (conflictFound) {
+                if (allAppointments.hasConflict(doctor.getCode(), appointmentDate, appointmentTime, duration, null)) {
                     System.out.println("Já existe uma consulta agendada neste horário.");
                     return;
                 }
@@ -222,12 +234,11 @@ public class DoctorView {
                         appointmentTime,
                         patient.getCpf(),
                         doctor.getCode(),
-                        AppointmentStatus.PENDING
+                        AppointmentStatus.PENDING,
+                        duration
                 );
 
-                appointment.saveToCSVFile(APPOINTMENT_CSV, true);
-
-                // Adicionar a consulta à lista geral
+                // Adicionar a consulta ao repositório (registrada no diário)
                 allAppointments.add(appointment);
 
                 System.out.println("\nConsulta agendada com sucesso!");
@@ -236,6 +247,8 @@ public class DoctorView {
 
             } catch (DateTimeParseException e) {
                 System.out.println("Formato de data ou hora inválido: " + e.getMessage());
+            } catch (IOException e) {
+                System.out.println("Erro ao salvar a consulta: " + e.getMessage());
             }
 
         } catch (NumberFormatException e) {
@@ -328,10 +341,12 @@ public class DoctorView {
         }
 
         System.out.println("\nPacientes encontrados:");
+        ListRenderer out = new ListRenderer();
         for (int i = 0; i < matches.size(); i++) {
             Patient p = matches.get(i);
-            System.out.println((i + 1) + " - " + p.getName() + " (CPF: " + UIUtils.formatCPF(p.getCpf()) + ")");
+            out.append(i + 1).append(" - ").append(p.getName()).append(" (CPF: ").appendCPF(p.getCpf()).append(')').newLine();
         }
+        out.flush();
 
         System.out.print("\nDigite o número do paciente (0 para voltar): ");
         try {
@@ -408,12 +423,12 @@ public class DoctorView {
      * @param allPatients Todos os pacientes
      * @param scanner Scanner para leitura
      */
-    private static void viewFutureAppointments(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void viewFutureAppointments(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         List<Appointment> futureAppointments = new ArrayList<>();
 
         // Filtrar consultas pendentes (futuras) do médico
-        for (Appointment app : allAppointments) {
-            if (app.getDoctorCRM().equals(doctor.getCode()) && app.getStatus() == AppointmentStatus.PENDING) {
+        for (Appointment app : allAppointments.findByDoctor(doctor.getCode())) {
+            if (app.getStatus() == AppointmentStatus.PENDING) {
                 futureAppointments.add(app);
             }
         }
@@ -429,11 +444,7 @@ public class DoctorView {
 
         System.out.println("\nSuas consultas agendadas:");
 
-        for (int i = 0; i < futureAppointments.size(); i++) {
-            Appointment app = futureAppointments.get(i);
-            String patientName = getPatientName(allPatients, app.getPatientCPF());
-            System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " - Paciente: " + patientName);
-        }
+        printNumberedAppointments(futureAppointments, allPatients);
 
         System.out.println("\nDeseja gerenciar alguma consulta? (s/n): ");
         String response = scanner.nextLine();
@@ -487,7 +498,7 @@ public class DoctorView {
      * @param allPatients Todos os pacientes
      * @param scanner Scanner para leitura
      */
-    private static void viewPastAppointments(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void viewPastAppointments(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         System.out.println("\n=== CONSULTAR HISTÓRICO DE CONSULTAS ===");
         System.out.println("Selecione o período:");
         System.out.println("1 - Última semana");
@@ -505,7 +516,7 @@ public class DoctorView {
                 return;
             }
 
-            LocalDate endDate = LocalDate.now();
+            LocalDate endDate = AppClock.today();
             LocalDate startDate;
 
             switch (option) {
@@ -523,7 +534,7 @@ public class DoctorView {
                     break;
                 case 5: // Período personalizado
                     try {
-                        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+                        DateTimeFormatter formatter = ListRenderer.ISO_DATE_FORMATTER;
 
                         System.out.print("Digite a data inicial (yyyy-MM-dd): ");
                         startDate = LocalDate.parse(scanner.nextLine(), formatter);
@@ -557,41 +568,26 @@ public class DoctorView {
      * @param endDate Data final do período
      * @param scanner Scanner para leitura de entrada
      */
-    private static void showAppointmentsByPeriod(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients,
+    private static void showAppointmentsByPeriod(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients,
                                                  LocalDate startDate, LocalDate endDate, Scanner scanner) {
-        List<Appointment> filtered = new ArrayList<>();
-
-        for (Appointment appointment : allAppointments) {
-            if (appointment.getDoctorCRM().equals(doctor.getCode()) &&
-                    (appointment.getStatus() == AppointmentStatus.COMPLETED ||
-                            (appointment.hasOccurred() && appointment.getStatus() != AppointmentStatus.CANCELLED)) &&
-                    appointment.isInPeriod(startDate, endDate)) {
-                filtered.add(appointment);
-            }
-        }
+        // Consultas do período lidas do índice do médico, da mais recente para a mais antiga, uma página por vez
+        ListIterator<Appointment> filtered = allAppointments.cursorByDoctorInPeriod(doctor.getCode(), startDate, endDate, true,
+                appointment -> appointment.getStatus() == AppointmentStatus.COMPLETED ||
+                        (appointment.hasOccurred() && appointment.getStatus() != AppointmentStatus.CANCELLED));
 
-        if (filtered.isEmpty()) {
+        if (!filtered.hasNext()) {
             System.out.println("Nenhuma consulta encontrada no período informado.");
             return;
         }
 
-        // Ordenar por data/hora (mais recente primeiro)
-        filtered.sort(Comparator.comparing(Appointment::getDate)
-                .thenComparing(Appointment::getTime).reversed());
-
         System.out.println("\nConsultas realizadas no período de " +
-                startDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) +
+                startDate.format(ListRenderer.DATE_FORMATTER) +
                 " a " +
-                endDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + ":");
-
-        List<String> formattedAppointments = new ArrayList<>();
-        for (Appointment ap : filtered) {
-            String patientName = getPatientName(allPatients, ap.getPatientCPF());
-            formattedAppointments.add(ap.getFormattedDateTime() + " - Paciente: " + patientName +
-                    " (CPF: " + UIUtils.formatCPF(ap.getPatientCPF()) + ")");
-        }
+                endDate.format(ListRenderer.DATE_FORMATTER) + ":");
 
-        UIUtils.paginateList(formattedAppointments, 10, scanner);
+        UIUtils.paginate(filtered, 10, (out, ap) -> out.appendDateTime(ap.getDate(), ap.getTime())
+                .append(" - Paciente: ").append(getPatientName(allPatients, ap.getPatientCPF()))
+                .append(" (CPF: ").appendCPF(ap.getPatientCPF()).append(')'), scanner);
     }
 
     /**
@@ -602,7 +598,7 @@ public class DoctorView {
      * @param allPatients Todos os pacientes
      * @param scanner Scanner para leitura
      */
-    private static void rescheduleAppointment(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void rescheduleAppointment(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         System.out.println("\n=== REMARCAR CONSULTAS ===");
         System.out.println("Selecione o filtro:");
         System.out.println("1 - Consultas da semana");
@@ -619,25 +615,21 @@ public class DoctorView {
             }
 
             List<Appointment> filteredAppointments = new ArrayList<>();
-            LocalDate today = LocalDate.now();
+            LocalDate today = AppClock.today();
 
             switch (option) {
                 case 1: // Consultas da semana
                     LocalDate endOfWeek = today.plusDays(7);
-                    for (Appointment app : allAppointments) {
-                        if (app.getDoctorCRM().equals(doctor.getCode()) &&
-                                app.getStatus() == AppointmentStatus.PENDING &&
-                                app.isInPeriod(today, endOfWeek)) {
+                    for (Appointment app : allAppointments.findByDoctorInPeriod(doctor.getCode(), today, endOfWeek)) {
+                        if (app.getStatus() == AppointmentStatus.PENDING) {
                             filteredAppointments.add(app);
                         }
                     }
                     break;
                 case 2: // Consultas do mês
                     LocalDate endOfMonth = today.plusMonths(1);
-                    for (Appointment app : allAppointments) {
-                        if (app.getDoctorCRM().equals(doctor.getCode()) &&
-                                app.getStatus() == AppointmentStatus.PENDING &&
-                                app.isInPeriod(today, endOfMonth)) {
+                    for (Appointment app : allAppointments.findByDoctorInPeriod(doctor.getCode(), today, endOfMonth)) {
+                        if (app.getStatus() == AppointmentStatus.PENDING) {
                             filteredAppointments.add(app);
                         }
                     }
@@ -648,9 +640,8 @@ public class DoctorView {
                         return;
                     }
 
-                    for (Appointment app : allAppointments) {
+                    for (Appointment app : allAppointments.findByPatient(patient.getCpf())) {
                         if (app.getDoctorCRM().equals(doctor.getCode()) &&
-                                app.getPatientCPF().equals(patient.getCpf()) &&
                                 app.getStatus() == AppointmentStatus.PENDING) {
                             filteredAppointments.add(app);
                         }
@@ -671,12 +662,7 @@ public class DoctorView {
                     .thenComparing(Appointment::getTime));
 
             System.out.println("\nConsultas disponíveis para remarcação:");
-            for (int i = 0; i < filteredAppointments.size(); i++) {
-                Appointment app = filteredAppointments.get(i);
-                String patientName = getPatientName(allPatients, app.getPatientCPF());
-                System.out.println((i + 1) + " - " + app.getFormattedDateTime() +
-                        " - Paciente: " + patientName);
-            }
+            printNumberedAppointments(filteredAppointments, allPatients);
 
             System.out.print("\nDigite o número da consulta para remarcar (0 para voltar): ");
             int selection = Integer.parseInt(scanner.nextLine());
@@ -706,7 +692,7 @@ public class DoctorView {
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void doRescheduleAppointment(Appointment appointment, Doctor doctor, List<Appointment> allAppointments, Scanner scanner) {
+    private static void doRescheduleAppointment(Appointment appointment, Doctor doctor, AppointmentRepository allAppointments, Scanner scanner) {
         try {
             // Obter nova data
             System.out.print("Digite a nova data da consulta (yyyy-MM-dd): ");
@@ -716,65 +702,41 @@ public class DoctorView {
             System.out.print("Digite o novo horário da consulta (HH:mm): ");
             String timeStr = scanner.nextLine();
 
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+            DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
             LocalDate newDate = LocalDate.parse(dateStr, dateFormatter);
             LocalTime newTime = LocalTime.parse(timeStr, timeFormatter);
 
             // Verificar se a data é no futuro
-            if (newDate.isBefore(LocalDate.now())) {
+            if (newDate.isBefore(AppClock.today())) {
                 System.out.println("A data da consulta deve ser futura.");
                 return;
             }
 
             // Verificar se já existe consulta no mesmo horário para o médico
-            boolean conflictFound = false;
-            for (Appointment app : allAppointments) {
-                if (app != appointment &&
-                        app.getDoctorCRM().equals(doctor.getCode()) &&
-                        app.getDate().equals(newDate) &&
-                        app.getTime().equals(newTime) &&
-                        app.getStatus() == AppointmentStatus.PENDING) {
-                    conflictFound = true;
-                    break;
-                }
-            }
-
-            if (conflictFound) {
+            if (allAppointments.hasConflict(doctor.getCode(), newDate, newTime,
+                    appointment.getDurationMinutes(), appointment)) {
                 System.out.println("Já existe uma consulta agendada neste horário.");
                 return;
             }
 
-            // Remover a consulta antiga
-            int indexToRemove = -1;
-            for (int i = 0; i < allAppointments.size(); i++) {
-                Appointment app = allAppointments.get(i);
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
-
-                    indexToRemove = i;
-                    break;
-                }
-            }
+            // Localizar a consulta antiga pelo ID
+            Appointment existing = allAppointments.findById(appointment.getId());
 
-            if (indexToRemove != -1) {
+            if (existing != null) {
                 // Criar nova consulta com os mesmos dados, exceto data e hora
                 Appointment newAppointment = new Appointment(
                         newDate,
                         newTime,
                         appointment.getPatientCPF(),
                         appointment.getDoctorCRM(),
-                        AppointmentStatus.PENDING
+                        AppointmentStatus.PENDING,
+                        appointment.getDurationMinutes()
                 );
 
-                // Substituir na lista
-                allAppointments.set(indexToRemove, newAppointment);
-
-                // Salvar a lista atualizada
-                Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
+                // Substituir no repositório
+                allAppointments.replace(existing, newAppointment);
 
                 System.out.println("Consulta remarcada com sucesso!");
                 System.out.println("Nova data e hora: " + newAppointment.getFormattedDateTime());
@@ -799,12 +761,12 @@ public class DoctorView {
      * @param allPatients Todos os pacientes
      * @param scanner Scanner para leitura
      */
-    private static void cancelAppointment(Doctor doctor, List<Appointment> allAppointments, List<Patient> allPatients, Scanner scanner) {
+    private static void cancelAppointment(Doctor doctor, AppointmentRepository allAppointments, List<Patient> allPatients, Scanner scanner) {
         List<Appointment> futureAppointments = new ArrayList<>();
 
         // Filtrar consultas pendentes (futuras) do médico
-        for (Appointment app : allAppointments) {
-            if (app.getDoctorCRM().equals(doctor.getCode()) && app.getStatus() == AppointmentStatus.PENDING) {
+        for (Appointment app : allAppointments.findByDoctor(doctor.getCode())) {
+            if (app.getStatus() == AppointmentStatus.PENDING) {
                 futureAppointments.add(app);
             }
         }
@@ -820,11 +782,7 @@ public class DoctorView {
 
         System.out.println("\nConsultas que podem ser canceladas:");
 
-        for (int i = 0; i < futureAppointments.size(); i++) {
-            Appointment app = futureAppointments.get(i);
-            String patientName = getPatientName(allPatients, app.getPatientCPF());
-            System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " - Paciente: " + patientName);
-        }
+        printNumberedAppointments(futureAppointments, allPatients);
 
         System.out.print("\nDigite o número da consulta para cancelar (0 para voltar): ");
         try {
@@ -860,22 +818,15 @@ public class DoctorView {
      * @param appointment Consulta a ser cancelada
      * @param allAppointments Todas as consultas
      */
-    private static void doCancelAppointment(Appointment appointment, List<Appointment> allAppointments) {
+    private static void doCancelAppointment(Appointment appointment, AppointmentRepository allAppointments) {
         try {
-            // Encontrar e atualizar a consulta na lista
-            for (Appointment app : allAppointments) {
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
-
-                    app.setStatus(AppointmentStatus.CANCELLED);
-                    break;
-                }
+            // Encontrar a consulta no repositório pelo ID e atualizá-la
+            Appointment existing = allAppointments.findById(appointment.getId());
+            if (existing == null) {
+                System.out.println("Erro: Consulta não encontrada na lista.");
+                return;
             }
-
-            // Salvar a lista atualizada
-            Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
+            allAppointments.updateStatus(existing, AppointmentStatus.CANCELLED);
 
             System.out.println("Consulta cancelada com sucesso!");
 
@@ -885,6 +836,22 @@ public class DoctorView {
         }
     }
 
+    /**
+     * Lista consultas numeradas a partir de 1, com data/hora e nome do paciente
+     *
+     * @param appointments Consultas a listar
+     * @param allPatients Todos os pacientes
+     */
+    private static void printNumberedAppointments(List<Appointment> appointments, List<Patient> allPatients) {
+        ListRenderer out = new ListRenderer();
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment app = appointments.get(i);
+            out.append(i + 1).append(" - ").appendDateTime(app.getDate(), app.getTime())
+                    .append(" - Paciente: ").append(getPatientName(allPatients, app.getPatientCPF())).newLine();
+        }
+        out.flush();
+    }
+
     /**
      * Obtém o nome do paciente a partir do CPF
      *
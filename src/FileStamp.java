@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Tamanho e data de modificação de um arquivo em um determinado momento.
+ * Permite saber se um arquivo foi alterado sem precisar lê-lo novamente.
+ */
+public class FileStamp {
+
+    private final long size;
+    private final long lastModified;
+
+    private FileStamp(long size, long lastModified) {
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Recria uma marca a partir de valores gravados anteriormente
+     *
+     * @param size Tamanho do arquivo em bytes
+     * @param lastModified Data de modificação em milissegundos
+     * @return Marca com os valores informados
+     */
+    public static FileStamp of(long size, long lastModified) {
+        return new FileStamp(size, lastModified);
+    }
+
+    /**
+     * Lê o tamanho e a data de modificação atuais de um arquivo
+     *
+     * @param filename Nome do arquivo
+     * @return Marca do arquivo (tamanho e data zerados se ele não existir ou não puder ser lido)
+     */
+    public static FileStamp of(String filename) {
+        Path path = Paths.get(filename);
+        try {
+            if (Files.exists(path)) {
+                return new FileStamp(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            }
+        } catch (IOException e) {
+            // Tratado como arquivo inexistente: quem compara vai considerar que mudou
+        }
+        return new FileStamp(0, 0);
+    }
+
+    /**
+     * Retorna o tamanho do arquivo
+     *
+     * @return Tamanho em bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Retorna a data de modificação do arquivo
+     *
+     * @return Data de modificação em milissegundos
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Verifica se o arquivo mudou desde esta marca
+     *
+     * @param filename Nome do arquivo
+     * @return true se o tamanho ou a data de modificação forem diferentes
+     */
+    public boolean changed(String filename) {
+        return !equals(of(filename));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileStamp)) return false;
+        FileStamp other = (FileStamp) o;
+        return size == other.size && lastModified == other.lastModified;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+    }
+
+    @Override
+    public String toString() {
+        return size + ":" + lastModified;
+    }
+}
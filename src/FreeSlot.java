@@ -0,0 +1,40 @@
+import java.time.LocalDateTime;
+
+/**
+ * Horário livre na agenda de um médico, resultado das buscas de
+ * disponibilidade do {@link DoctorCalendar}
+ */
+public class FreeSlot {
+
+    private final String doctorCRM;
+    private final LocalDateTime dateTime;
+
+    /**
+     * Cria um horário livre
+     *
+     * @param doctorCRM CRM do médico
+     * @param dateTime Data e hora do horário
+     */
+    public FreeSlot(String doctorCRM, LocalDateTime dateTime) {
+        this.doctorCRM = doctorCRM;
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * Retorna o CRM do médico
+     *
+     * @return CRM do médico
+     */
+    public String getDoctorCRM() {
+        return doctorCRM;
+    }
+
+    /**
+     * Retorna a data e hora do horário livre
+     *
+     * @return Data e hora
+     */
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Cursor bidirecional sobre um índice ordenado (chave → itens com essa chave),
+ * usado para paginar listagens sem montar a lista completa
+ * ({@link UIUtils#paginate}).
+ *
+ * O cursor guarda só a posição atual (chave e posição dentro do grupo) e lê o
+ * índice a cada passo, com {@code higherKey}/{@code lowerKey}; avançar ou
+ * voltar uma página custa o tamanho da página, e não o tamanho do índice.
+ * Como a posição é uma chave, e não um iterador do mapa, o cursor continua
+ * válido se o índice for alterado entre uma página e outra.
+ *
+ * Itens que não atendem ao filtro são pulados nos dois sentidos. Não permite
+ * alterar o índice ({@link #remove()}, {@link #set}, {@link #add} lançam
+ * {@link UnsupportedOperationException}).
+ *
+ * @param <K> Tipo da chave do índice
+ * @param <T> Tipo dos itens
+ */
+public final class IndexCursor<K, T> implements ListIterator<T> {
+
+    private final NavigableMap<K, List<T>> index;
+    private final boolean descending;
+    private final Predicate<? super T> filter;
+    // Posição atual: antes do item de posição position do grupo key (null = antes do primeiro grupo)
+    private K key;
+    private int position;
+    private int nextIndex;
+    // Resultado da última busca (seek)
+    private K foundKey;
+    private int foundPosition;
+
+    /**
+     * Cria um cursor posicionado antes do primeiro item
+     *
+     * @param index Índice (ou uma faixa dele, ex.: subMap)
+     * @param descending Se true, percorre da maior chave para a menor
+     * @param filter Itens a incluir
+     */
+    public IndexCursor(NavigableMap<K, List<T>> index, boolean descending, Predicate<? super T> filter) {
+        this.index = descending ? index.descendingMap() : index;
+        this.descending = descending;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return seek(true) != null;
+    }
+
+    @Override
+    public T next() {
+        T item = seek(true);
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        // Fica depois do item encontrado
+        key = foundKey;
+        position = foundPosition + 1;
+        nextIndex++;
+        return item;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return seek(false) != null;
+    }
+
+    @Override
+    public T previous() {
+        T item = seek(false);
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        // Fica antes do item encontrado
+        key = foundKey;
+        position = foundPosition;
+        nextIndex--;
+        return item;
+    }
+
+    @Override
+    public int nextIndex() {
+        return nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+        return nextIndex - 1;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void set(T item) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(T item) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Procura, a partir da posição atual, o próximo (ou anterior) item que
+     * atende ao filtro, sem mover o cursor
+     *
+     * @return Item encontrado (com foundKey/foundPosition preenchidos) ou null
+     */
+    private T seek(boolean forward) {
+        K k = key;
+        int p = position;
+        if (k == null) {
+            if (!forward || index.isEmpty()) {
+                return null;
+            }
+            k = index.firstKey();
+            p = 0;
+        }
+        while (k != null) {
+            List<T> group = index.get(k);
+            int size = group == null ? 0 : group.size();
+            if (forward) {
+                for (p = Math.max(p, 0); p < size; p++) {
+                    T item = item(group, p);
+                    if (filter.test(item)) {
+                        foundKey = k;
+                        foundPosition = p;
+                        return item;
+                    }
+                }
+                k = index.higherKey(k);
+                p = 0;
+            } else {
+                for (p = Math.min(p, size) - 1; p >= 0; p--) {
+                    T item = item(group, p);
+                    if (filter.test(item)) {
+                        foundKey = k;
+                        foundPosition = p;
+                        return item;
+                    }
+                }
+                k = index.lowerKey(k);
+                p = Integer.MAX_VALUE;
+            }
+        }
+        return null;
+    }
+
+    private T item(List<T> group, int position) {
+        return descending ? group.get(group.size() - 1 - position) : group.get(position);
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eventos do Java Flight Recorder emitidos pela aplicação, para relacionar
+ * numa gravação (ex.: java -XX:StartFlightRecording=filename=medapp.jfr ...)
+ * as pausas de GC e de E/S com a operação que estava em andamento.
+ *
+ * Uso:
+ * <pre>
+ *     JfrEvents.CsvRead event = JfrEvents.startCsvRead();
+ *     ...
+ *     if (event != null) {
+ *         event.finish(filename, rows);
+ *     }
+ * </pre>
+ * Os eventos só são criados se o JFR estiver ativo na JVM: carregar a
+ * primeira classe de evento inicializa o JFR, o que custa centenas de
+ * milissegundos na inicialização da aplicação mesmo sem gravação. Os campos
+ * só são preenchidos quando o evento vai ser gravado.
+ */
+final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * @return true se o JFR já foi iniciado nesta JVM (por linha de comando ou jcmd)
+     */
+    static boolean isActive() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * @return Evento de leitura iniciado, ou null se o JFR não estiver ativo
+     */
+    static CsvRead startCsvRead() {
+        if (!isActive()) {
+            return null;
+        }
+        CsvRead event = new CsvRead();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @return Evento de gravação iniciado, ou null se o JFR não estiver ativo
+     */
+    static CsvWrite startCsvWrite() {
+        if (!isActive()) {
+            return null;
+        }
+        CsvWrite event = new CsvWrite();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @return Evento de verificação de conflito iniciado, ou null se o JFR não estiver ativo
+     */
+    static ConflictCheck startConflictCheck() {
+        if (!isActive()) {
+            return null;
+        }
+        ConflictCheck event = new ConflictCheck();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @return Evento de associação iniciado, ou null se o JFR não estiver ativo
+     */
+    static Association startAssociation() {
+        if (!isActive()) {
+            return null;
+        }
+        Association event = new Association();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Leitura completa de um arquivo CSV
+     */
+    @Name("medapp.CsvRead")
+    @Label("Leitura de CSV")
+    @Category({"MedApp", "Arquivos"})
+    static final class CsvRead extends Event {
+        @Label("Arquivo")
+        String file;
+
+        @Label("Linhas")
+        @Description("Registros carregados")
+        int rows;
+
+        @Label("Tamanho")
+        @DataAmount
+        long bytes;
+
+        /**
+         * Encerra o evento e o grava, se estiver habilitado
+         *
+         * @param filename Arquivo lido
+         * @param rows Registros carregados
+         */
+        void finish(String filename, int rows) {
+            end();
+            if (shouldCommit()) {
+                file = filename;
+                this.rows = rows;
+                bytes = sizeOf(filename);
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Gravação de registros num arquivo CSV
+     */
+    @Name("medapp.CsvWrite")
+    @Label("Gravação de CSV")
+    @Category({"MedApp", "Arquivos"})
+    static final class CsvWrite extends Event {
+        @Label("Arquivo")
+        String file;
+
+        @Label("Linhas")
+        @Description("Registros gravados")
+        int rows;
+
+        @Label("Tamanho")
+        @Description("Tamanho do arquivo (ou do trecho acrescentado) após a gravação")
+        @DataAmount
+        long bytes;
+
+        @Label("Acréscimo")
+        @Description("Registros acrescentados ao final do arquivo, sem regravá-lo")
+        boolean append;
+
+        /**
+         * Encerra o evento de uma gravação completa do arquivo e o grava, se estiver habilitado
+         *
+         * @param filename Arquivo gravado
+         * @param rows Registros gravados
+         */
+        void finish(String filename, int rows) {
+            end();
+            if (shouldCommit()) {
+                file = filename;
+                this.rows = rows;
+                bytes = sizeOf(filename);
+                commit();
+            }
+        }
+
+        /**
+         * Encerra o evento de um acréscimo ao arquivo e o grava, se estiver habilitado
+         *
+         * @param filename Arquivo gravado
+         * @param rows Registros acrescentados
+         * @param appended Bytes acrescentados
+         */
+        void finishAppend(String filename, int rows, long appended) {
+            end();
+            if (shouldCommit()) {
+                file = filename;
+                this.rows = rows;
+                bytes = appended;
+                append = true;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Verificação de conflito de horário de um médico
+     */
+    @Name("medapp.ConflictCheck")
+    @Label("Verificação de conflito")
+    @Category({"MedApp", "Agenda"})
+    static final class ConflictCheck extends Event {
+        @Label("CRM")
+        String doctorCRM;
+
+        @Label("Data e hora")
+        String dateTime;
+
+        @Label("Duração (min)")
+        int durationMinutes;
+
+        @Label("Conflito")
+        boolean conflict;
+
+        /**
+         * Encerra o evento e o grava, se estiver habilitado
+         */
+        void finish(String crm, LocalDate date, LocalTime time, int duration, boolean result) {
+            end();
+            if (shouldCommit()) {
+                doctorCRM = crm;
+                dateTime = ListRenderer.appendDateTime(new StringBuilder(), date, time).toString();
+                durationMinutes = duration;
+                conflict = result;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Associação das consultas aos pacientes
+     */
+    @Name("medapp.Association")
+    @Label("Associação de consultas")
+    @Category({"MedApp", "Agenda"})
+    static final class Association extends Event {
+        @Label("Pacientes")
+        int patients;
+
+        @Label("Consultas")
+        int appointments;
+
+        @Label("Paralela")
+        boolean parallel;
+
+        /**
+         * Encerra o evento e o grava, se estiver habilitado
+         */
+        void finish(int patientCount, int appointmentCount, boolean parallelPath) {
+            end();
+            if (shouldCommit()) {
+                patients = patientCount;
+                appointments = appointmentCount;
+                parallel = parallelPath;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Retorna o tamanho de um arquivo, para os eventos de leitura e gravação
+     *
+     * @param filename Nome do arquivo
+     * @return Tamanho em bytes, ou -1 se não for possível obtê-lo
+     */
+    static long sizeOf(String filename) {
+        try {
+            return Files.size(Paths.get(filename));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
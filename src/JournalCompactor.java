@@ -0,0 +1,95 @@
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa periodicamente, em segundo plano, a compactação do diário de
+ * consultas no arquivo CSV. Ao ser fechado, interrompe a execução periódica
+ * e faz uma última compactação antes de fechar o diário.
+ *
+ * Uma ação opcional (ex.: gravar o snapshot binário) é executada após cada
+ * compactação periódica que regravou o CSV.
+ */
+public class JournalCompactor implements AutoCloseable {
+
+    private final AppointmentRepository repository;
+    private final ScheduledExecutorService executor;
+    private final Runnable afterCompact;
+
+    /**
+     * Inicia a compactação periódica do repositório
+     *
+     * @param repository Repositório aberto com diário
+     * @param period Intervalo entre compactações
+     * @param unit Unidade do intervalo
+     */
+    public JournalCompactor(AppointmentRepository repository, long period, TimeUnit unit) {
+        this(repository, period, unit, null);
+    }
+
+    /**
+     * Inicia a compactação periódica do repositório
+     *
+     * @param repository Repositório aberto com diário
+     * @param period Intervalo entre compactações
+     * @param unit Unidade do intervalo
+     * @param afterCompact Ação executada após cada compactação periódica que regravou o CSV (pode ser null)
+     */
+    public JournalCompactor(AppointmentRepository repository, long period, TimeUnit unit, Runnable afterCompact) {
+        this.repository = repository;
+        this.afterCompact = afterCompact;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compactacao-consultas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::compactPeriodically, period, period, unit);
+    }
+
+    /**
+     * Compacta o diário imediatamente
+     *
+     * @return true se o CSV foi regravado
+     */
+    public boolean compact() {
+        try {
+            return repository.compact();
+        } catch (IOException e) {
+            System.out.println("Erro ao compactar o diário de consultas: " + e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            System.err.println("Erro inesperado ao compactar o diário de consultas:");
+            e.printStackTrace(System.err);
+            return false;
+        }
+    }
+
+    private void compactPeriodically() {
+        // Uma exceção que escape da tarefa cancela as execuções seguintes, e o diário cresceria sem limite
+        try {
+            if (compact() && afterCompact != null) {
+                afterCompact.run();
+            }
+        } catch (Exception e) {
+            System.err.println("Erro inesperado na compactação periódica do diário:");
+            e.printStackTrace(System.err);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compact();
+        try {
+            repository.closeJournal();
+        } catch (IOException e) {
+            System.out.println("Erro ao fechar o diário de consultas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com faixas log-lineares, no estilo do HdrHistogram:
+ * cada potência de 2 é dividida em 32 faixas iguais, o que dá erro relativo
+ * de no máximo ~3% em qualquer escala (de nanossegundos a horas) com um
+ * número fixo de contadores (1.888) e sem guardar as medidas.
+ *
+ * Registrar é O(1), sem bloqueio, e pode ser feito por várias threads.
+ * Os percentis são o limite superior da faixa em que caem (limitados ao máximo).
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Valores até 2 × SUB_BUCKETS têm faixas de largura 1; depois, 32 faixas por potência de 2
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra uma medida
+     *
+     * @param nanos Duração em nanossegundos (valores negativos contam como 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+            // outra thread atualizou o máximo; tenta de novo
+        }
+    }
+
+    /**
+     * @return Número de medidas registradas
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Média em nanossegundos (0 se não houver medidas)
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @return Maior medida em nanossegundos
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retorna o valor abaixo do qual está a fração informada das medidas
+     *
+     * @param percentile Percentil, de 0 a 100
+     * @return Valor em nanossegundos (0 se não houver medidas)
+     */
+    public long getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long top = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
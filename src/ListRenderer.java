@@ -0,0 +1,215 @@
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Monta o texto das listagens num único {@link StringBuilder} reaproveitado e
+ * o escreve de uma vez na saída a cada {@link #flush()} (uma vez por página ou
+ * por lista), em vez de um {@code System.out.println} por linha.
+ *
+ * Datas e horas são escritas dígito a dígito, sem criar um
+ * {@link DateTimeFormatter} nem strings intermediárias por linha. Os mesmos
+ * métodos estáticos são usados por {@link Appointment} para a exibição e para
+ * o CSV, e os formatadores para leitura ficam em constantes compartilhadas.
+ *
+ * Não é sincronizada: cada tela cria o seu.
+ */
+public final class ListRenderer {
+
+    /** Data no formato do CSV (yyyy-MM-dd) */
+    public static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    /** Hora no formato do CSV e das telas (HH:mm) */
+    public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    /** Data no formato das telas (dd/MM/yyyy) */
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Acima disso o texto é escrito mesmo sem flush, para limitar a memória em listas longas
+    private static final int MAX_BUFFERED_CHARS = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final PrintStream out;
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    /**
+     * Cria um renderizador que escreve na saída padrão
+     */
+    public ListRenderer() {
+        this(System.out);
+    }
+
+    /**
+     * Cria um renderizador que escreve na saída informada
+     *
+     * @param out Saída do texto
+     */
+    public ListRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    public ListRenderer append(String text) {
+        buffer.append(text);
+        return this;
+    }
+
+    public ListRenderer append(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    public ListRenderer append(long number) {
+        buffer.append(number);
+        return this;
+    }
+
+    /**
+     * Acrescenta uma data no formato dd/MM/yyyy
+     */
+    public ListRenderer appendDate(LocalDate date) {
+        appendDate(buffer, date);
+        return this;
+    }
+
+    /**
+     * Acrescenta data e hora no formato "dd/MM/yyyy às HH:mm"
+     */
+    public ListRenderer appendDateTime(LocalDate date, LocalTime time) {
+        appendDateTime(buffer, date, time);
+        return this;
+    }
+
+    /**
+     * Acrescenta data e hora no formato "dd/MM/yyyy às HH:mm"
+     */
+    public ListRenderer appendDateTime(LocalDateTime dateTime) {
+        appendDateTime(buffer, dateTime.toLocalDate(), dateTime.toLocalTime());
+        return this;
+    }
+
+    /**
+     * Acrescenta um CPF no formato 123.456.789-00 (ou como está, se não tiver 11 dígitos)
+     */
+    public ListRenderer appendCPF(String cpf) {
+        if (cpf == null || cpf.length() != 11) {
+            buffer.append(cpf);
+            return this;
+        }
+        buffer.append(cpf, 0, 3).append('.')
+                .append(cpf, 3, 6).append('.')
+                .append(cpf, 6, 9).append('-')
+                .append(cpf, 9, 11);
+        return this;
+    }
+
+    /**
+     * Acrescenta a descrição de uma consulta (mesmo texto de {@link Appointment#toString()})
+     */
+    public ListRenderer appendAppointment(Appointment appointment) {
+        appendAppointment(buffer, appointment);
+        return this;
+    }
+
+    /**
+     * Termina a linha atual; escreve o texto acumulado se ele passar do limite do buffer
+     */
+    public ListRenderer newLine() {
+        buffer.append(LINE_SEPARATOR);
+        if (buffer.length() >= MAX_BUFFERED_CHARS) {
+            flush();
+        }
+        return this;
+    }
+
+    /**
+     * Escreve na saída o texto acumulado e esvazia o buffer
+     */
+    public void flush() {
+        if (buffer.length() > 0) {
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+        out.flush();
+    }
+
+    /**
+     * Acrescenta uma data no formato dd/MM/yyyy
+     *
+     * @param sb Destino
+     * @param date Data
+     * @return O próprio destino
+     */
+    static StringBuilder appendDate(StringBuilder sb, LocalDate date) {
+        if (!isFourDigitYear(date)) {
+            return sb.append(date.format(DATE_FORMATTER));
+        }
+        appendTwoDigits(sb, date.getDayOfMonth()).append('/');
+        appendTwoDigits(sb, date.getMonthValue()).append('/');
+        return sb.append(date.getYear());
+    }
+
+    /**
+     * Acrescenta uma data no formato do CSV (yyyy-MM-dd)
+     *
+     * @param sb Destino
+     * @param date Data
+     * @return O próprio destino
+     */
+    static StringBuilder appendIsoDate(StringBuilder sb, LocalDate date) {
+        if (!isFourDigitYear(date)) {
+            return sb.append(date.format(ISO_DATE_FORMATTER));
+        }
+        sb.append(date.getYear()).append('-');
+        appendTwoDigits(sb, date.getMonthValue()).append('-');
+        return appendTwoDigits(sb, date.getDayOfMonth());
+    }
+
+    /**
+     * Acrescenta uma hora no formato HH:mm
+     *
+     * @param sb Destino
+     * @param time Hora
+     * @return O próprio destino
+     */
+    static StringBuilder appendTime(StringBuilder sb, LocalTime time) {
+        appendTwoDigits(sb, time.getHour()).append(':');
+        return appendTwoDigits(sb, time.getMinute());
+    }
+
+    /**
+     * Acrescenta data e hora no formato "dd/MM/yyyy às HH:mm"
+     *
+     * @param sb Destino
+     * @param date Data
+     * @param time Hora
+     * @return O próprio destino
+     */
+    static StringBuilder appendDateTime(StringBuilder sb, LocalDate date, LocalTime time) {
+        appendDate(sb, date).append(" às ");
+        return appendTime(sb, time);
+    }
+
+    /**
+     * Acrescenta a descrição de uma consulta (mesmo texto de {@link Appointment#toString()})
+     *
+     * @param sb Destino
+     * @param appointment Consulta
+     * @return O próprio destino
+     */
+    static StringBuilder appendAppointment(StringBuilder sb, Appointment appointment) {
+        sb.append("Consulta em ");
+        appendDateTime(sb, appointment.getDate(), appointment.getTime());
+        return sb.append(", Paciente: ").append(appointment.getPatientCPF())
+                .append(", Médico: ").append(appointment.getDoctorCRM())
+                .append(", Status: ").append(appointment.getStatus().getDescription());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static boolean isFourDigitYear(LocalDate date) {
+        // Fora desse intervalo o DateTimeFormatter usa sinal ou mais dígitos
+        return date.getYear() >= 1000 && date.getYear() <= 9999;
+    }
+}
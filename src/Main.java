@@ -1,5 +1,10 @@
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Classe principal do sistema de gerenciamento de clínica médica.
@@ -7,22 +12,83 @@ import java.util.Scanner;
  * para as interfaces específicas.
  */
 public class Main {
+    /** Número de consultas a partir do qual o agrupamento por CPF é feito em paralelo */
+    private static final int PARALLEL_ASSOCIATION_THRESHOLD = 200_000;
+
+    /** Snapshot binário dos três CSVs, usado para acelerar a inicialização */
+    private static final String SNAPSHOT_FILE = "medapp.snapshot";
+
     /**
      * Método principal de entrada do programa
      *
-     * @param args Argumentos de linha de comando (não utilizados)
+     * @param args Argumentos de linha de comando: --profile-startup mede as
+     *             fases da inicialização (ver {@link StartupProfiler})
      */
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--profile-startup")) {
+                StartupProfiler.enable();
+            } else {
+                System.out.println("Opção desconhecida: " + arg);
+            }
+        }
+
         // Criamos apenas um scanner para toda a aplicação
 
         try (Scanner scanner = new Scanner(System.in)) {
             System.out.println("Bem-vindo ao seu aplicativo de gerenciamento de clínica!\n");
 
-            // Carregamento dos dados
-            List<Doctor> doctors = Doctor.loadFromCSV("doctors_clean.csv");
-            List<Patient> patients = Patient.loadFromCSV("patients.csv");
-            List<Appointment> appointments = Appointment.loadFromCSV("appointments.csv");
-            associateAppointmentsToPatients(patients, appointments);
+            // Carregamento dos dados: do snapshot binário quando ele corresponde aos CSVs atuais
+            StartupProfiler.Phase phase = StartupProfiler.begin("snapshot.leitura");
+            BinarySnapshot snapshot = BinarySnapshot.read(SNAPSHOT_FILE);
+            phase.end(snapshot == null ? 0 : 1);
+
+            phase = StartupProfiler.begin("medicos.snapshot");
+            List<Doctor> snapshotDoctors = snapshot == null ? null : snapshot.getDoctors("doctors_clean.csv");
+            if (snapshotDoctors != null) {
+                DoctorDirectory.preload(snapshotDoctors, snapshot.getDoctorsStamp());
+                phase.end(snapshotDoctors.size());
+            } else {
+                // O tempo gasto verificando o snapshot desatualizado também conta
+                phase.end(0);
+                if (StartupProfiler.isEnabled()) {
+                    // Normalmente os médicos só são lidos no primeiro uso; no perfil a leitura entra na inicialização
+                    phase = StartupProfiler.begin("medicos.csv");
+                    phase.end(DoctorDirectory.getDoctors().size());
+                }
+            }
+
+            phase = StartupProfiler.begin("pacientes.snapshot");
+            FileStamp patientsStamp = FileStamp.of("patients.csv");
+            List<Patient> patients = snapshot == null ? null : snapshot.getPatients("patients.csv");
+            if (patients == null) {
+                phase.end(0);
+                phase = StartupProfiler.begin("pacientes.csv");
+                patients = loadPatients();
+            }
+            phase.end(patients.size());
+            long start = Metrics.start();
+            AppointmentRepository appointments = AppointmentRepository.open("appointments.csv", "appointments.journal", snapshot);
+            Metrics.stop("carga.consultas", start);
+            phase = StartupProfiler.begin("associacao");
+            Map<String, Patient> patientsByCpf = associateAppointmentsToPatients(patients, appointments.getAll());
+            phase.end(appointments.size());
+            StartupProfiler.report();
+
+            // Alterações nas consultas vão para o diário; o CSV e o snapshot são regravados periodicamente
+            JournalCompactor compactor = new JournalCompactor(appointments, 5, TimeUnit.MINUTES,
+                    () -> BinarySnapshot.refresh(SNAPSHOT_FILE, "patients.csv", appointments));
+
+            // Consultas pendentes passam a realizadas quando terminam
+            AppointmentStatusScheduler statusScheduler = new AppointmentStatusScheduler(appointments);
+
+            // Valores lidos a cada relatório de métricas
+            Metrics.gauge("consultas.total", appointments::size);
+            Metrics.gauge("medicos.cache.acertos", DoctorDirectory::getHits);
+            Metrics.gauge("medicos.cache.falhas", DoctorDirectory::getMisses);
+
+            // Leitor das alterações feitas pelos painéis, aplicadas às listas dos pacientes na volta de cada painel
+            AppointmentRepository.ChangeCursor patientChanges = appointments.openChangeCursor();
 
             int option = 0;
             while (option != -1) {
@@ -38,19 +104,13 @@ public class Main {
 
                     switch (option) {
                         case 1:
-                            AdminView.checkOptions(true, scanner);
-                            patients = Patient.loadFromCSV("patients.csv");
-                            doctors = Doctor.loadFromCSV("doctors_clean.csv");
-                            appointments = Appointment.loadFromCSV("appointments.csv");
-                            associateAppointmentsToPatients(patients, appointments);
+                            AdminView.checkOptions(true, appointments, scanner);
                             break;
                         case 2:
-                            PatientView.checkOptions(patients, true, scanner);
-                            appointments = Appointment.loadFromCSV("appointments.csv");
-                            associateAppointmentsToPatients(patients, appointments);
+                            PatientView.checkOptions(patients, appointments, true, scanner);
                             break;
                         case 3:
-                            DoctorView.checkOptions(doctors, appointments, patients, true, scanner);
+                            DoctorView.checkOptions(appointments, patients, true, scanner);
                             break;
                         case 0:
                             System.out.println("Encerrando o sistema...");
@@ -59,13 +119,47 @@ public class Main {
                         default:
                             System.out.println("Opção inválida!");
                     }
+
                 } catch (NumberFormatException e) {
                     System.out.println("Entrada inválida. Por favor, digite um número.");
                 } catch (Exception e) {
                     System.err.println("Erro inesperado:");
                     e.printStackTrace(System.err);
+                } finally {
+                    // Roda também depois de um erro, pois o painel pode ter gravado alterações antes de falhar
+                    List<AppointmentChange> changes = patientChanges.poll();
+
+                    // Os arquivos de pacientes e médicos só são relidos se mudaram desde a última leitura
+                    DoctorDirectory.invalidateIfChanged();
+                    if (patientsStamp.changed("patients.csv")) {
+                        patientsStamp = FileStamp.of("patients.csv");
+                        patients = loadPatients();
+                        patientsByCpf = associateAppointmentsToPatients(patients, appointments.getAll());
+                    } else {
+                        applyAppointmentChanges(patientsByCpf, changes);
+                    }
                 }
             }
+            patientChanges.close();
+
+            // Incorpora ao CSV as alterações pendentes no diário
+            statusScheduler.close();
+            compactor.close();
+
+            // Grava o snapshot para a próxima inicialização, se algum CSV mudou
+            snapshot = BinarySnapshot.read(SNAPSHOT_FILE);
+            if (snapshot == null || !snapshot.isCurrent()) {
+                start = Metrics.start();
+                BinarySnapshot.write(SNAPSHOT_FILE, "patients.csv", patients, patientsStamp, appointments);
+                Metrics.stop("snapshot.gravacao", start);
+            }
+
+            // Relatório de métricas da sessão
+            try {
+                Metrics.dump(Metrics.DUMP_FILE);
+            } catch (IOException e) {
+                System.out.println("Erro ao gravar as métricas: " + e.getMessage());
+            }
         } catch (Exception e) {
             System.err.println("Erro fatal ao inicializar a aplicação: " + e.getMessage());
             e.printStackTrace(System.err);
@@ -76,25 +170,114 @@ public class Main {
     }
 
     /**
-     * Associa as consultas aos seus respectivos pacientes
+     * Associa as consultas aos seus respectivos pacientes.
+     * Usa um índice CPF → paciente (hash join), de modo que o custo é
+     * proporcional a pacientes + consultas. Com muitas consultas e mais de um
+     * processador, o agrupamento por CPF é feito em paralelo.
      *
      * @param patients Lista de pacientes
      * @param appointments Lista de consultas
+     * @return Índice CPF → paciente usado na associação
      */
-    public static void associateAppointmentsToPatients(List<Patient> patients, List<Appointment> appointments) {
-        // Limpar listas de consultas existentes para evitar duplicatas
+    public static Map<String, Patient> associateAppointmentsToPatients(List<Patient> patients, List<Appointment> appointments) {
+        long start = Metrics.start();
+        JfrEvents.Association event = JfrEvents.startAssociation();
+        try {
+            return associate(patients, appointments);
+        } finally {
+            Metrics.stop("associacao", start);
+            if (event != null) {
+                event.finish(patients.size(), appointments.size(), isParallelAssociation(appointments));
+            }
+        }
+    }
+
+    private static Map<String, Patient> associate(List<Patient> patients, List<Appointment> appointments) {
+        // Limpar listas de consultas existentes para evitar duplicatas e indexar por CPF
+        Map<String, Patient> patientsByCpf = new HashMap<>(patients.size() * 4 / 3 + 1);
         for (Patient patient : patients) {
             patient.getAppointmentList().clear();
+            // Com CPFs repetidos, as consultas ficam com o primeiro paciente da lista
+            patientsByCpf.putIfAbsent(patient.getCpf(), patient);
+        }
+
+        if (isParallelAssociation(appointments)) {
+            // groupingBy (não concorrente) preserva a ordem das consultas dentro de cada grupo
+            Map<String, List<Appointment>> grouped = appointments.parallelStream()
+                    .filter(appointment -> patientsByCpf.containsKey(appointment.getPatientCPF()))
+                    .collect(Collectors.groupingBy(Appointment::getPatientCPF));
+            grouped.forEach((cpf, list) -> patientsByCpf.get(cpf).getAppointmentList().addAll(list));
+            return patientsByCpf;
         }
 
         // Associar cada consulta ao paciente correspondente
         for (Appointment appointment : appointments) {
-            for (Patient patient : patients) {
-                if (patient.getCpf().equals(appointment.getPatientCPF())) {
-                    patient.addAppointment(appointment);
-                    break;
+            Patient patient = patientsByCpf.get(appointment.getPatientCPF());
+            if (patient != null) {
+                patient.addAppointment(appointment);
+            }
+        }
+        return patientsByCpf;
+    }
+
+    /**
+     * Aplica às listas de consultas dos pacientes as criações e remarcações
+     * feitas no repositório, sem refazer a associação completa.
+     * As telas podem já ter atualizado a lista do paciente, por isso cada
+     * alteração só é aplicada se ainda não estiver refletida nela.
+     *
+     * @param patientsByCpf Índice CPF → paciente
+     * @param changes Alterações feitas no repositório
+     */
+    public static void applyAppointmentChanges(Map<String, Patient> patientsByCpf, List<AppointmentChange> changes) {
+        for (AppointmentChange change : changes) {
+            Appointment oldAppointment = change.getOldAppointment();
+            Appointment newAppointment = change.getNewAppointment();
+
+            if (oldAppointment != null) {
+                Patient oldPatient = patientsByCpf.get(oldAppointment.getPatientCPF());
+                if (oldPatient != null) {
+                    List<Appointment> list = oldPatient.getAppointmentList();
+                    int index = indexOfSame(list, oldAppointment);
+                    if (index != -1) {
+                        // Remarcação para o mesmo paciente mantém a posição da consulta na lista
+                        if (oldPatient.getCpf().equals(newAppointment.getPatientCPF())
+                                && indexOfSame(list, newAppointment) == -1) {
+                            list.set(index, newAppointment);
+                            continue;
+                        }
+                        list.remove(index);
+                    }
                 }
             }
+
+            Patient patient = patientsByCpf.get(newAppointment.getPatientCPF());
+            if (patient != null && indexOfSame(patient.getAppointmentList(), newAppointment) == -1) {
+                patient.addAppointment(newAppointment);
+            }
+        }
+    }
+
+    private static boolean isParallelAssociation(List<Appointment> appointments) {
+        return appointments.size() >= PARALLEL_ASSOCIATION_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    private static List<Patient> loadPatients() {
+        long start = Metrics.start();
+        try {
+            return Patient.loadFromCSV("patients.csv");
+        } finally {
+            Metrics.stop("carga.pacientes", start);
+        }
+    }
+
+    private static int indexOfSame(List<Appointment> list, Appointment appointment) {
+        // Por identidade: consultas iguais em todos os campos são registros distintos
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == appointment) {
+                return i;
+            }
         }
+        return -1;
     }
 }
\ No newline at end of file
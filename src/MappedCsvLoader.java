@@ -0,0 +1,654 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Carregador de arquivos CSV que percorre os bytes do arquivo diretamente, separando linhas e campos sem criar
+ * Strings intermediárias nem usar expressões regulares. Datas, horas, CPFs e CRMs
+ * são interpretados a partir dos bytes, e CPFs/CRMs repetidos reutilizam a mesma
+ * instância de String.
+ *
+ * Linhas fora do formato esperado (campos com espaços extras, status desconhecido,
+ * datas fora do padrão etc.) são repassadas a {@link Appointment#parseLine(String)},
+ * de modo que o tratamento de erros e as mensagens continuam os mesmos do
+ * carregamento tradicional.
+ *
+ * Arquivos de consultas grandes são divididos em faixas de bytes alinhadas a
+ * início de linha e interpretados em paralelo (ver {@link #loadAppointmentsParallel}).
+ *
+ * Arquivos menores que {@link #PARALLEL_THRESHOLD} são lidos de uma vez para um
+ * buffer no heap ({@link FileChannel#read}). Só os maiores são mapeados em
+ * memória ({@link FileChannel#map}), e cada janela mapeada continua ativa até
+ * ser coletada pelo GC. No Windows, um arquivo com mapeamento ativo não pode
+ * ser truncado nem substituído: regravar um arquivo grande carregado por aqui
+ * na mesma sessão (ex.: a compactação do diário sobre appointments.csv) pode
+ * falhar enquanto o mapeamento não for liberado.
+ */
+public final class MappedCsvLoader {
+
+    /** Tamanho máximo de cada janela do arquivo */
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    /** Tamanho a partir do qual o arquivo de consultas é carregado em paralelo, e os arquivos são mapeados */
+    private static final long PARALLEL_THRESHOLD = 16L << 20;
+
+    /** Número de faixas por thread, para equilibrar a carga entre as threads */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final byte[] PENDING = bytes("PENDING");
+    private static final byte[] COMPLETED = bytes("COMPLETED");
+    private static final byte[] CANCELLED = bytes("CANCELLED");
+
+    private MappedCsvLoader() {
+    }
+
+    /**
+     * Carrega consultas de um arquivo CSV (Data,Horario,CPF_Paciente,CRM_Medico,Status,ID,Duracao).
+     * Arquivos grandes são carregados em paralelo quando há mais de um processador.
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Lista de consultas carregadas, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static List<Appointment> loadAppointments(String filename) throws IOException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        if (processors > 1 && Files.size(Paths.get(filename)) >= PARALLEL_THRESHOLD) {
+            return loadAppointmentsParallel(filename, processors);
+        }
+        return loadAppointmentsSequential(filename);
+    }
+
+    /**
+     * Carrega consultas de um arquivo CSV em uma única thread
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Lista de consultas carregadas, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static List<Appointment> loadAppointmentsSequential(String filename) throws IOException {
+        List<Appointment> appointments = new ArrayList<>();
+        AppointmentParser parser = new AppointmentParser(System.out::println);
+        forEachLine(filename, (buffer, start, end) -> {
+            Appointment appointment = parser.parse(buffer, start, end);
+            if (appointment != null) {
+                appointments.add(appointment);
+            }
+        });
+        return appointments;
+    }
+
+    /**
+     * Carrega consultas de um arquivo CSV dividindo-o em faixas de bytes alinhadas
+     * a início de linha, interpretadas em paralelo em um {@link ForkJoinPool}.
+     * O resultado e as mensagens de erro seguem a ordem do arquivo, como no
+     * carregamento sequencial.
+     *
+     * @param filename Nome do arquivo CSV
+     * @param parallelism Número de threads
+     * @return Lista de consultas carregadas, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static List<Appointment> loadAppointmentsParallel(String filename, int parallelism) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size); // pula cabeçalho
+            long[] bounds = chunkBounds(channel, dataStart, size, parallelism * CHUNKS_PER_THREAD);
+
+            List<Callable<ParsedChunk>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                tasks.add(() -> parseChunk(channel, from, to));
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ParsedChunk> chunks = new ArrayList<>(tasks.size());
+                int total = 0;
+                for (Future<ParsedChunk> future : pool.invokeAll(tasks)) {
+                    ParsedChunk chunk = future.get();
+                    chunks.add(chunk);
+                    total += chunk.appointments.size();
+                }
+
+                List<Appointment> appointments = new ArrayList<>(total);
+                for (ParsedChunk chunk : chunks) {
+                    for (String message : chunk.errors) {
+                        System.out.println(message);
+                    }
+                    appointments.addAll(chunk.appointments);
+                }
+                return appointments;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Carregamento interrompido", e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Resultado da interpretação de uma faixa do arquivo
+     */
+    private static final class ParsedChunk {
+        final List<Appointment> appointments = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+    }
+
+    private static ParsedChunk parseChunk(FileChannel channel, long from, long to) throws IOException {
+        ParsedChunk chunk = new ParsedChunk();
+        AppointmentParser parser = new AppointmentParser(chunk.errors::add);
+        forEachLine(channel, from, to, false, true, (buffer, start, end) -> {
+            Appointment appointment = parser.parse(buffer, start, end);
+            if (appointment != null) {
+                chunk.appointments.add(appointment);
+            }
+        });
+        return chunk;
+    }
+
+    /**
+     * Divide [from, to) em faixas de tamanho aproximado, com cada limite
+     * ajustado para o início da linha seguinte
+     */
+    private static long[] chunkBounds(FileChannel channel, long from, long to, int chunks) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = from;
+        int count = 1;
+        long step = Math.max(1, (to - from) / chunks);
+        for (int i = 1; i < chunks; i++) {
+            long candidate = Math.max(from + step * i, bounds[count - 1]);
+            long bound = nextLineStart(channel, candidate, to);
+            if (bound > bounds[count - 1] && bound < to) {
+                bounds[count++] = bound;
+            }
+        }
+        bounds[count++] = to;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Retorna a posição logo após o próximo '\n' a partir de {@code position}
+     * (ou {@code limit}, se não houver)
+     */
+    private static long nextLineStart(FileChannel channel, long position, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < limit) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return limit;
+    }
+
+    /**
+     * Carrega pacientes de um arquivo CSV (Nome,CPF)
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Lista de pacientes carregados, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static List<Patient> loadPatients(String filename) throws IOException {
+        List<Patient> patients = new ArrayList<>();
+        NameCodeParser parser = new NameCodeParser();
+        forEachLine(filename, (buffer, start, end) -> {
+            if (parser.parse(buffer, start, end)) {
+                patients.add(new Patient(parser.name, parser.code));
+            }
+        });
+        return patients;
+    }
+
+    /**
+     * Carrega médicos de um arquivo CSV (Nome,CRM)
+     *
+     * @param filename Nome do arquivo CSV
+     * @return Lista de médicos carregados, na ordem do arquivo
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    public static List<Doctor> loadDoctors(String filename) throws IOException {
+        List<Doctor> doctors = new ArrayList<>();
+        NameCodeParser parser = new NameCodeParser();
+        forEachLine(filename, (buffer, start, end) -> {
+            if (parser.parse(buffer, start, end)) {
+                doctors.add(new Doctor(parser.name, parser.code));
+            }
+        });
+        return doctors;
+    }
+
+    /**
+     * Recebe o intervalo de bytes [start, end) de cada linha não vazia, já sem
+     * o terminador de linha e sem espaços nas extremidades
+     */
+    interface LineHandler {
+        void line(ByteBuffer buffer, int start, int end);
+    }
+
+    /**
+     * Percorre as linhas de dados do arquivo (ignorando o cabeçalho). Arquivos
+     * menores que {@link #PARALLEL_THRESHOLD} são lidos inteiros para o heap; os
+     * maiores são mapeados em janelas de até {@link #WINDOW_SIZE} bytes alinhadas
+     * ao início de linha
+     *
+     * @param filename Nome do arquivo
+     * @param handler Receptor de cada linha
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    static void forEachLine(String filename, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            forEachLine(channel, 0, size, true, size >= PARALLEL_THRESHOLD, handler);
+        }
+    }
+
+    /**
+     * Percorre as linhas contidas no intervalo [from, to) do arquivo.
+     * O intervalo deve começar em início de linha; a última linha pode terminar
+     * sem quebra de linha.
+     *
+     * @param channel Canal do arquivo
+     * @param from Posição inicial (início de linha)
+     * @param to Posição final (exclusiva)
+     * @param skipHeader Se true, a primeira linha do intervalo é ignorada
+     * @param mapped Se true, mapeia as janelas em memória; se false, lê cada janela para o heap
+     * @param handler Receptor de cada linha
+     * @throws IOException se ocorrer erro ao ler o arquivo
+     */
+    static void forEachLine(FileChannel channel, long from, long to, boolean skipHeader, boolean mapped,
+                            LineHandler handler) throws IOException {
+        long position = from;
+        boolean skip = skipHeader;
+
+        while (position < to) {
+            long length = Math.min(WINDOW_SIZE, to - position);
+            ByteBuffer buffer = mapped
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                    : read(channel, position, (int) length);
+            boolean lastWindow = position + length >= to;
+            int limit = (int) length;
+            int lineStart = 0;
+
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    if (skip) {
+                        skip = false;
+                    } else {
+                        emit(buffer, lineStart, i, handler);
+                    }
+                    lineStart = i + 1;
+                }
+            }
+
+            if (lastWindow) {
+                if (lineStart < limit && !skip) {
+                    emit(buffer, lineStart, limit, handler);
+                }
+                break;
+            }
+            if (lineStart == 0) {
+                throw new IOException("Linha maior que " + WINDOW_SIZE + " bytes na posição " + position);
+            }
+            // A próxima janela começa na linha que ficou incompleta
+            position += lineStart;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Arquivo truncado durante a leitura na posição " + (position + buffer.position()));
+            }
+        }
+        return buffer;
+    }
+
+    private static void emit(ByteBuffer buffer, int start, int end, LineHandler handler) {
+        // Equivalente a String.trim(): remove bytes <= ' ' (inclui o '\r' de arquivos CRLF)
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        if (start < end) {
+            handler.line(buffer, start, end);
+        }
+    }
+
+    /**
+     * Posições dos campos de uma linha, com a mesma semântica de {@code line.split(",")}:
+     * campos vazios no final da linha são descartados
+     */
+    private static final class Fields {
+        int count;
+        int[] start = new int[8];
+        int[] end = new int[8];
+
+        void split(ByteBuffer buffer, int lineStart, int lineEnd, int maxFields) {
+            count = 0;
+            int fieldStart = lineStart;
+            for (int i = lineStart; i <= lineEnd && count < maxFields; i++) {
+                if (i == lineEnd || buffer.get(i) == ',') {
+                    if (count == start.length) {
+                        start = Arrays.copyOf(start, count * 2);
+                        end = Arrays.copyOf(end, count * 2);
+                    }
+                    start[count] = fieldStart;
+                    end[count] = i;
+                    count++;
+                    fieldStart = i + 1;
+                }
+            }
+            while (count > 0 && start[count - 1] == end[count - 1]) {
+                count--;
+            }
+        }
+    }
+
+    /**
+     * Interpreta linhas de consultas a partir dos bytes
+     */
+    static final class AppointmentParser {
+        /** Faixa de anos cujas datas são reaproveitadas entre linhas */
+        private static final int FIRST_CACHED_YEAR = 1900;
+        private static final int CACHED_YEARS = 300;
+
+        private final Fields fields = new Fields();
+        private final StringCache cpfs = new StringCache();
+        private final StringCache crms = new StringCache();
+        // LocalDate e LocalTime são imutáveis: a mesma instância serve a todas as linhas
+        private final LocalDate[] dates = new LocalDate[CACHED_YEARS * 12 * 31];
+        private final LocalTime[] times = new LocalTime[24 * 60];
+        private final Consumer<String> errors;
+
+        /**
+         * @param errors Destino das mensagens de erro das linhas inválidas
+         */
+        AppointmentParser(Consumer<String> errors) {
+            this.errors = errors;
+        }
+
+        /**
+         * Converte a linha em consulta
+         *
+         * @return Consulta ou null se a linha for inválida (o erro já terá sido informado)
+         */
+        Appointment parse(ByteBuffer buffer, int start, int end) {
+            Appointment appointment = parseFast(buffer, start, end);
+            if (appointment != null) {
+                return appointment;
+            }
+            return Appointment.parseLine(decode(buffer, start, end), errors);
+        }
+
+        private Appointment parseFast(ByteBuffer buffer, int start, int end) {
+            Fields f = fields;
+            f.split(buffer, start, end, 8);
+            if (f.count < 4 || f.count > 7) return null;
+
+            // Data: yyyy-MM-dd
+            int d = f.start[0];
+            if (f.end[0] - d != 10 || buffer.get(d + 4) != '-' || buffer.get(d + 7) != '-') return null;
+            int year = digits(buffer, d, 4);
+            int month = digits(buffer, d + 5, 2);
+            int day = digits(buffer, d + 8, 2);
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) return null;
+
+            // Hora: HH:mm
+            int t = f.start[1];
+            if (f.end[1] - t != 5 || buffer.get(t + 2) != ':') return null;
+            int hour = digits(buffer, t, 2);
+            int minute = digits(buffer, t + 3, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return null;
+
+            // CPF: exatamente 11 dígitos
+            int cpfStart = f.start[2];
+            if (f.end[2] - cpfStart != 11) return null;
+            long cpfValue = number(buffer, cpfStart, 11);
+            if (cpfValue < 0) return null;
+
+            // CRM: somente dígitos (até 17, para caber na chave do cache)
+            int crmStart = f.start[3];
+            int crmLength = f.end[3] - crmStart;
+            if (crmLength < 1 || crmLength > 17) return null;
+            long crmValue = number(buffer, crmStart, crmLength);
+            if (crmValue < 0) return null;
+
+            AppointmentStatus status = AppointmentStatus.PENDING;
+            if (f.count >= 5) {
+                status = status(buffer, f.start[4], f.end[4]);
+                if (status == null) return null;
+            }
+
+            // ID: somente dígitos, positivo (até 18 dígitos)
+            long id = 0;
+            if (f.count >= 6) {
+                int idLength = f.end[5] - f.start[5];
+                if (idLength < 1 || idLength > 18) return null;
+                id = number(buffer, f.start[5], idLength);
+                if (id <= 0) return null;
+            }
+
+            // Duração em minutos (até 3 dígitos), dentro dos limites aceitos
+            int duration = Appointment.DEFAULT_DURATION_MINUTES;
+            if (f.count == 7) {
+                int durationLength = f.end[6] - f.start[6];
+                if (durationLength < 1 || durationLength > 3) return null;
+                duration = (int) number(buffer, f.start[6], durationLength);
+                if (!Appointment.isValidDuration(duration)) return null;
+            }
+
+            LocalDate date = date(year, month, day);
+            if (date == null) {
+                // Datas como 30/02 seguem o caminho tradicional (resolução do DateTimeFormatter)
+                return null;
+            }
+
+            LocalTime time = times[hour * 60 + minute];
+            if (time == null) {
+                time = LocalTime.of(hour, minute);
+                times[hour * 60 + minute] = time;
+            }
+
+            String cpf = cpfs.get(buffer, cpfStart, 11, cpfValue);
+            String crm = crms.get(buffer, crmStart, crmLength, crmValue * 20 + crmLength);
+            Appointment appointment = new Appointment(date, time, cpf, crm, status, duration);
+            appointment.setId(id);
+            return appointment;
+        }
+
+        private LocalDate date(int year, int month, int day) {
+            int yearOffset = year - FIRST_CACHED_YEAR;
+            int slot = (yearOffset * 12 + month - 1) * 31 + day - 1;
+            if (yearOffset >= 0 && yearOffset < CACHED_YEARS && dates[slot] != null) {
+                return dates[slot];
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                return null;
+            }
+            if (yearOffset >= 0 && yearOffset < CACHED_YEARS) {
+                dates[slot] = date;
+            }
+            return date;
+        }
+    }
+
+    /**
+     * Interpreta linhas no formato Nome,Código (pacientes e médicos),
+     * com a mesma semântica do carregamento tradicional
+     */
+    static final class NameCodeParser {
+        private final Fields fields = new Fields();
+        private final StringCache codes = new StringCache();
+        String name;
+        String code;
+
+        boolean parse(ByteBuffer buffer, int start, int end) {
+            fields.split(buffer, start, end, 2);
+            if (fields.count < 2) {
+                // split(",") descarta campos vazios no final: confere se há mais campos
+                fields.split(buffer, start, end, Integer.MAX_VALUE);
+                if (fields.count < 2) return false;
+            }
+            name = trimmed(buffer, fields.start[0], fields.end[0]);
+
+            int codeStart = fields.start[1];
+            int codeEnd = fields.end[1];
+            while (codeStart < codeEnd && (buffer.get(codeStart) & 0xFF) <= ' ') codeStart++;
+            while (codeEnd > codeStart && (buffer.get(codeEnd - 1) & 0xFF) <= ' ') codeEnd--;
+            int length = codeEnd - codeStart;
+            long value = length >= 1 && length <= 17 ? number(buffer, codeStart, length) : -1;
+            code = value >= 0
+                    ? codes.get(buffer, codeStart, length, value * 20 + length)
+                    : decode(buffer, codeStart, codeEnd);
+            return true;
+        }
+    }
+
+    /**
+     * Tabela de Strings indexada por chave numérica (endereçamento aberto),
+     * usada para reaproveitar CPFs e CRMs repetidos sem alocar objetos na busca
+     */
+    static final class StringCache {
+        private long[] keys = new long[1024];
+        private String[] values = new String[1024];
+        private int size;
+
+        String get(ByteBuffer buffer, int start, int length, long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            String value = ascii(buffer, start, length);
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new String[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Lê um número decimal de tamanho fixo
+     *
+     * @return Valor ou -1 se algum byte não for dígito
+     */
+    private static int digits(ByteBuffer buffer, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Lê um número decimal longo (até 18 dígitos)
+     *
+     * @return Valor ou -1 se algum byte não for dígito
+     */
+    private static long number(ByteBuffer buffer, int start, int length) {
+        long value = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static AppointmentStatus status(ByteBuffer buffer, int start, int end) {
+        if (matches(buffer, start, end, PENDING)) return AppointmentStatus.PENDING;
+        if (matches(buffer, start, end, COMPLETED)) return AppointmentStatus.COMPLETED;
+        if (matches(buffer, start, end, CANCELLED)) return AppointmentStatus.CANCELLED;
+        return null;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] expected) {
+        if (end - start != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static String trimmed(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        return decode(buffer, start, end);
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
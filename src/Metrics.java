@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas da aplicação, em memória: contadores, medidores
+ * (valores lidos na hora do relatório, ex.: tamanho de um cache) e histogramas
+ * de latência ({@link LatencyHistogram}) por operação.
+ *
+ * As operações medidas usam o padrão:
+ * <pre>
+ *     long start = Metrics.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         Metrics.stop("consultas.marcar", start);
+ *     }
+ * </pre>
+ *
+ * O relatório pode ser exibido no menu do administrador e é gravado em
+ * {@link #DUMP_FILE} ao sair da aplicação. Registrar uma medida custa algumas
+ * operações atômicas, sem bloqueio.
+ */
+public final class Metrics {
+
+    /** Arquivo em que o relatório é gravado ao sair da aplicação */
+    public static final String DUMP_FILE = "metrics.txt";
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Soma 1 a um contador
+     *
+     * @param name Nome do contador
+     */
+    public static void increment(String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Registra um medidor, lido a cada relatório (substitui um anterior com o mesmo nome)
+     *
+     * @param name Nome do medidor
+     * @param value Fornece o valor atual
+     */
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Retorna o instante de início de uma operação medida
+     *
+     * @return Instante em nanossegundos (para {@link #stop(String, long)})
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra a duração de uma operação iniciada em {@link #start()}
+     *
+     * @param name Nome da operação
+     * @param start Valor devolvido por {@link #start()}
+     */
+    public static void stop(String name, long start) {
+        record(name, System.nanoTime() - start);
+    }
+
+    /**
+     * Registra a duração de uma operação
+     *
+     * @param name Nome da operação
+     * @param nanos Duração em nanossegundos
+     */
+    public static void record(String name, long nanos) {
+        histograms.computeIfAbsent(name, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Retorna o histograma de uma operação
+     *
+     * @param name Nome da operação
+     * @return Histograma, ou null se a operação nunca foi medida
+     */
+    public static LatencyHistogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Retorna o valor de um contador
+     *
+     * @param name Nome do contador
+     * @return Valor (0 se o contador não existir)
+     */
+    public static long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Escreve o relatório com todas as métricas, em ordem de nome
+     *
+     * @param out Saída
+     */
+    public static void print(PrintStream out) {
+        ListRenderer renderer = new ListRenderer(out);
+        renderer.append("=== MÉTRICAS DE DESEMPENHO ===").newLine();
+
+        renderer.newLine().append("Operações (ms)").newLine();
+        renderer.append(String.format("  %-32s %8s %9s %9s %9s %9s %9s", "nome", "n", "média", "p50", "p90", "p99", "máx")).newLine();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            renderer.append(String.format("  %-32s %8d %9.3f %9.3f %9.3f %9.3f %9.3f", entry.getKey(), histogram.getCount(),
+                    histogram.getMean() / 1e6, histogram.getPercentile(50) / 1e6, histogram.getPercentile(90) / 1e6,
+                    histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6)).newLine();
+        }
+
+        renderer.newLine().append("Contadores").newLine();
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            renderer.append(String.format("  %-32s %,12d", entry.getKey(), entry.getValue())).newLine();
+        }
+        renderer.flush();
+    }
+
+    /**
+     * Grava o relatório num arquivo, com a data e hora da gravação
+     *
+     * @param filename Nome do arquivo
+     * @throws IOException se ocorrer erro ao gravar
+     */
+    public static void dump(String filename) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(filename)), false, StandardCharsets.UTF_8)) {
+            LocalDateTime now = AppClock.now();
+            out.println("Gravado em " + ListRenderer.appendDateTime(new StringBuilder(), now.toLocalDate(), now.toLocalTime()));
+            print(out);
+        }
+    }
+}
@@ -1,7 +1,5 @@
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * Classe que representa um paciente no sistema.
@@ -11,7 +9,7 @@ public class Patient {
 
     private final String name;
     private final String cpf;
-    private final List<Appointment> appointmentList;
+    private final PatientTimeline appointmentList;
 
 
     /**
@@ -19,13 +17,13 @@ public class Patient {
      *
      * @param name Nome do paciente
      * @param cpf CPF do paciente
-     * @param appointmentList Lista de consultas do paciente
+     * @param appointmentList Lista de consultas do paciente (copiada)
      */
     public Patient(String name, String cpf, List<Appointment> appointmentList)
     {
         this.name = name;
         this.cpf = cpf;
-        this.appointmentList = appointmentList;
+        this.appointmentList = new PatientTimeline(appointmentList);
     }
 
     /**
@@ -37,7 +35,7 @@ public class Patient {
     public Patient(String name, String cpf){
         this.name = name;
         this.cpf = cpf;
-        this.appointmentList = new ArrayList<>();
+        this.appointmentList = new PatientTimeline();
     }
 
     /**
@@ -70,6 +68,17 @@ public class Patient {
         return appointmentList;
     }
 
+    /**
+     * Retorna as consultas do paciente indexadas por data e hora, para leitura
+     * das consultas futuras e realizadas sem filtrar a lista inteira
+     *
+     * @return Linha do tempo do paciente (a mesma lista de {@link #getAppointmentList()})
+     */
+    public PatientTimeline getTimeline()
+    {
+        return appointmentList;
+    }
+
     /**
      * Adiciona uma consulta à lista do paciente
      *
@@ -97,33 +106,17 @@ public class Patient {
      * @return Lista de pacientes carregados
      */
     public static List<Patient> loadFromCSV(String filename) {
-        List<Patient> patients = new ArrayList<>();
-
-        try (Scanner scanner = new Scanner(new File(filename))) {
-            // skip header
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
-            }
-
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (line.isEmpty()) continue;
-
-                try {
-                    String[] parts = line.split(",");
-                    if (parts.length < 2) continue;
-
-                    String name = parts[0].trim();
-                    String cpf = parts[1].trim();
-                    patients.add(new Patient(name, cpf));
-                } catch (Exception e) {
-                    System.out.println("Erro ao processar linha: " + line + " - " + e.getMessage());
-                }
-            }
+        JfrEvents.CsvRead event = JfrEvents.startCsvRead();
+        List<Patient> patients;
+        try {
+            patients = MappedCsvLoader.loadPatients(filename);
         } catch (Exception e) {
             System.out.println("Erro ao carregar os pacientes: " + e.getMessage());
+            patients = new ArrayList<>();
+        }
+        if (event != null) {
+            event.finish(filename, patients.size());
         }
-
         return patients;
     }
 
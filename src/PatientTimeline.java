@@ -0,0 +1,148 @@
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Lista de consultas de um paciente que mantém, além da ordem de inserção,
+ * um índice por data e hora de início. As telas leem as consultas futuras e
+ * as já realizadas como faixas do índice, divididas no instante atual, sem
+ * filtrar a lista inteira nem ordenar a cada exibição. As faixas são lidas
+ * por cursores ({@link IndexCursor}), que também permitem paginar para trás.
+ *
+ * Todas as alterações pela interface {@link List} (add, set, remove, clear)
+ * atualizam o índice. O índice só é montado na primeira leitura por faixa,
+ * para que pacientes que nunca abrem o menu não ocupem memória com ele.
+ */
+public class PatientTimeline extends AbstractList<Appointment> implements RandomAccess {
+
+    private final List<Appointment> appointments = new ArrayList<>();
+    // Início → consultas que começam nesse horário, em ordem de inserção (null até a primeira leitura)
+    private NavigableMap<LocalDateTime, List<Appointment>> byStart;
+
+    /**
+     * Cria uma lista vazia
+     */
+    public PatientTimeline() {
+    }
+
+    /**
+     * Cria uma lista com as consultas informadas, na mesma ordem
+     *
+     * @param appointments Consultas iniciais
+     */
+    public PatientTimeline(Collection<Appointment> appointments) {
+        this.appointments.addAll(appointments);
+    }
+
+    @Override
+    public Appointment get(int index) {
+        return appointments.get(index);
+    }
+
+    @Override
+    public int size() {
+        return appointments.size();
+    }
+
+    @Override
+    public Appointment set(int index, Appointment appointment) {
+        Appointment old = appointments.set(index, appointment);
+        if (byStart != null) {
+            unindex(old);
+            index(appointment);
+        }
+        return old;
+    }
+
+    @Override
+    public void add(int index, Appointment appointment) {
+        appointments.add(index, appointment);
+        modCount++;
+        if (byStart != null) {
+            index(appointment);
+        }
+    }
+
+    @Override
+    public Appointment remove(int index) {
+        Appointment old = appointments.remove(index);
+        modCount++;
+        if (byStart != null) {
+            unindex(old);
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        appointments.clear();
+        modCount++;
+        byStart = null;
+    }
+
+    /**
+     * Retorna as consultas pendentes que ainda não terminaram, da mais
+     * próxima para a mais distante
+     *
+     * @param now Instante atual
+     * @return Cursor sobre as consultas (lidas sob demanda, sem cópia)
+     */
+    public ListIterator<Appointment> upcoming(LocalDateTime now) {
+        // Uma consulta em andamento começou até MAX_DURATION_MINUTES antes de agora
+        LocalDateTime from = now.minusMinutes(Appointment.MAX_DURATION_MINUTES);
+        return new IndexCursor<>(index().tailMap(from, false), false,
+                app -> app.isPending() && LocalDateTime.of(app.getDate(), app.getTime())
+                        .plusMinutes(app.getDurationMinutes()).isAfter(now));
+    }
+
+    /**
+     * Retorna as consultas já iniciadas e não canceladas, da mais recente
+     * para a mais antiga
+     *
+     * @param now Instante atual
+     * @return Cursor sobre as consultas (lidas sob demanda, sem cópia)
+     */
+    public ListIterator<Appointment> past(LocalDateTime now) {
+        return new IndexCursor<>(index().headMap(now, false), true,
+                app -> app.getStatus() != AppointmentStatus.CANCELLED);
+    }
+
+    private NavigableMap<LocalDateTime, List<Appointment>> index() {
+        if (byStart == null) {
+            byStart = new TreeMap<>();
+            for (Appointment appointment : appointments) {
+                index(appointment);
+            }
+        }
+        return byStart;
+    }
+
+    private void index(Appointment appointment) {
+        byStart.computeIfAbsent(LocalDateTime.of(appointment.getDate(), appointment.getTime()),
+                k -> new ArrayList<>(1)).add(appointment);
+    }
+
+    private void unindex(Appointment appointment) {
+        LocalDateTime start = LocalDateTime.of(appointment.getDate(), appointment.getTime());
+        List<Appointment> atStart = byStart.get(start);
+        if (atStart == null) {
+            return;
+        }
+        // Por identidade: consultas iguais em todos os campos são registros distintos
+        for (int i = 0; i < atStart.size(); i++) {
+            if (atStart.get(i) == appointment) {
+                atStart.remove(i);
+                break;
+            }
+        }
+        if (atStart.isEmpty()) {
+            byStart.remove(start);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Scanner;
 
 /**
@@ -14,18 +15,17 @@ import java.util.Scanner;
  */
 public class PatientView {
 
-    private static final String APPOINTMENT_CSV = "appointments.csv";
-    private static final String DOCTOR_CSV = "doctors_clean.csv";
-
+    static final int FREE_SLOTS_SHOWN = 10;
 
     /**
      * Ponto de entrada principal para a interface do paciente
      *
      * @param patients Lista de pacientes cadastrados no sistema
+     * @param allAppointments Repositório de consultas do sistema
      * @param search Flag para controlar o loop do menu
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    public static void checkOptions(List<Patient> patients, boolean search, Scanner scanner) {
+    public static void checkOptions(List<Patient> patients, AppointmentRepository allAppointments, boolean search, Scanner scanner) {
         while (search) {
             try {
                 // Solicitar CPF ao paciente
@@ -53,8 +53,7 @@ public class PatientView {
                 System.out.println("\nBem-vindo(a), " + patient.getName() + "!");
 
                 // Carregar consultas do paciente
-                List<Appointment> allAppointments = Appointment.loadFromCSV(APPOINTMENT_CSV);
-                List<Appointment> patientAppointments = Appointment.filterByPatient(allAppointments, patient.getCpf());
+                List<Appointment> patientAppointments = allAppointments.findByPatient(patient.getCpf());
 
                 // Atualizar a lista de consultas do paciente
                 patient.getAppointmentList().clear();
@@ -96,7 +95,7 @@ public class PatientView {
      * @param allAppointments Todas as consultas do sistema
      * @param scanner Scanner para leitura de entrada do usuário
      */
-    private static void patientMenu(Patient patient, List<Appointment> allAppointments, Scanner scanner) {
+    private static void patientMenu(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
         boolean continueMenu = true;
 
         while (continueMenu) {
@@ -107,10 +106,13 @@ public class PatientView {
                 System.out.println("3 - Ver consultas realizadas");
                 System.out.println("4 - Remarcar consulta");
                 System.out.println("5 - Cancelar consulta");
+                System.out.println("6 - Agendar no próximo horário livre de um médico");
+                System.out.println("7 - Agendar no primeiro horário livre (qualquer médico)");
                 System.out.println("0 - Sair");
                 System.out.print("\nEscolha uma opção: ");
 
                 int option = Integer.parseInt(scanner.nextLine());
+                Metrics.increment("menu.paciente." + option);
 
                 switch (option) {
                     case 0:
@@ -131,6 +133,12 @@ public class PatientView {
                     case 5:
                         cancelAppointment(patient, allAppointments, scanner);
                         break;
+                    case 6:
+                        scheduleAtNextFreeSlot(patient, allAppointments, scanner);
+                        break;
+                    case 7:
+                        scheduleAtEarliestFreeSlot(patient, allAppointments, scanner);
+                        break;
                     default:
                         System.out.println("Opção inválida!");
                 }
@@ -151,10 +159,10 @@ public class PatientView {
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void scheduleNewAppointment(Patient patient, List<Appointment> allAppointments, Scanner scanner) {
+    private static void scheduleNewAppointment(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
         try {
-            // Carregar a lista de médicos
-            List<Doctor> doctors = Doctor.loadFromCSV(DOCTOR_CSV);
+            // Lista de médicos do cadastro em memória
+            List<Doctor> doctors = DoctorDirectory.getDoctors();
 
             if (doctors.isEmpty()) {
                 System.out.println("Não há médicos cadastrados no sistema.");
@@ -163,9 +171,7 @@ public class PatientView {
 
             // Exibir lista de médicos
             System.out.println("\nSelecione o médico para a consulta:");
-            for (int i = 0; i < doctors.size(); i++) {
-                System.out.println((i + 1) + " - " + doctors.get(i).getName() + " (CRM: " + doctors.get(i).getCode() + ")");
-            }
+            UIUtils.printNumberedDoctors(doctors);
 
             System.out.print("\nDigite o número correspondente ao médico: ");
             int doctorIndex = Integer.parseInt(scanner.nextLine()) - 1;
@@ -183,14 +189,14 @@ public class PatientView {
             System.out.print("Digite o horário da consulta (HH:mm): ");
             String timeStr = scanner.nextLine();
 
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+            DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
             LocalDate appointmentDate = LocalDate.parse(dateStr, dateFormatter);
             LocalTime appointmentTime = LocalTime.parse(timeStr, timeFormatter);
 
             // Verificar se a data é no futuro
-            if (appointmentDate.isBefore(LocalDate.now())) {
+            if (appointmentDate.isBefore(AppClock.today())) {
                 System.out.println("A data da consulta deve ser futura.");
                 return;
             }
@@ -198,18 +204,7 @@ public class PatientView {
             Doctor selectedDoctor = doctors.get(doctorIndex);
 
             // Verificar se já existe consulta no mesmo horário para o médico
-            boolean conflictFound = false;
-            for (Appointment app : allAppointments) {
-                if (app.getDoctorCRM().equals(selectedDoctor.getCode()) &&
-                        app.getDate().equals(appointmentDate) &&
-                        app.getTime().equals(appointmentTime) &&
-                        app.getStatus() == AppointmentStatus.PENDING) {
-                    conflictFound = true;
-                    break;
-                }
-            }
-
-            if (conflictFound) {
+            if (allAppointments.hasConflict(selectedDoctor.getCode(), appointmentDate, appointmentTime, null)) {
                 System.out.println("Já existe uma consulta agendada com este médico neste horário.");
                 return;
             }
@@ -223,14 +218,12 @@ public class PatientView {
                     AppointmentStatus.PENDING
             );
 
-            appointment.saveToCSVFile(APPOINTMENT_CSV, true);
+            // Adicionar a consulta ao repositório (registrada no diário)
+            allAppointments.add(appointment);
 
-            // Adicionar a consulta à lista do paciente
+            // Só depois de gravada, adicionar a consulta à lista do paciente
             patient.addAppointment(appointment);
 
-            // Adicionar a consulta à lista geral
-            allAppointments.add(appointment);
-
             System.out.println("\nConsulta agendada com sucesso!");
             System.out.println("Médico: " + selectedDoctor.getName());
             System.out.println("Data e hora: " + appointment.getFormattedDateTime());
@@ -245,37 +238,195 @@ public class PatientView {
     }
 
     /**
-     * Exibe as consultas futuras (agendadas) do paciente com opções de gerenciamento
+     * Mostra os próximos horários livres de um médico e agenda a consulta no
+     * horário escolhido, sem que o paciente precise tentar datas ao acaso
+     *
+     * @param patient Paciente
+     * @param allAppointments Todas as consultas
+     * @param scanner Scanner para leitura
+     */
+    private static void scheduleAtNextFreeSlot(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
+        try {
+            List<Doctor> doctors = DoctorDirectory.getDoctors();
+
+            if (doctors.isEmpty()) {
+                System.out.println("Não há médicos cadastrados no sistema.");
+                return;
+            }
+
+            System.out.println("\nSelecione o médico para a consulta:");
+            UIUtils.printNumberedDoctors(doctors);
+
+            System.out.print("\nDigite o número correspondente ao médico: ");
+            int doctorIndex = Integer.parseInt(scanner.nextLine()) - 1;
+
+            if (doctorIndex < 0 || doctorIndex >= doctors.size()) {
+                System.out.println("Seleção inválida.");
+                return;
+            }
+
+            Doctor selectedDoctor = doctors.get(doctorIndex);
+            List<LocalDateTime> freeSlots = allAppointments.findNextFreeSlots(
+                    selectedDoctor.getCode(), AppClock.now(), FREE_SLOTS_SHOWN);
+
+            if (freeSlots.isEmpty()) {
+                System.out.println("Não há horários livres para este médico.");
+                return;
+            }
+
+            System.out.println("\nPróximos horários livres de " + selectedDoctor.getName() + ":");
+            ListRenderer out = new ListRenderer();
+            for (int i = 0; i < freeSlots.size(); i++) {
+                out.append(i + 1).append(" - ").appendDateTime(freeSlots.get(i)).newLine();
+            }
+            out.flush();
+
+            System.out.print("\nDigite o número do horário desejado (0 para voltar): ");
+            int slotIndex = Integer.parseInt(scanner.nextLine()) - 1;
+
+            if (slotIndex == -1) {
+                return;
+            }
+            if (slotIndex < 0 || slotIndex >= freeSlots.size()) {
+                System.out.println("Seleção inválida.");
+                return;
+            }
+
+            LocalDateTime slot = freeSlots.get(slotIndex);
+
+            // O horário pode ter sido ocupado enquanto a lista era exibida
+            if (allAppointments.hasConflict(selectedDoctor.getCode(), slot.toLocalDate(), slot.toLocalTime(), null)) {
+                System.out.println("Este horário acabou de ser ocupado. Escolha outro.");
+                return;
+            }
+
+            Appointment appointment = new Appointment(
+                    slot.toLocalDate(),
+                    slot.toLocalTime(),
+                    patient.getCpf(),
+                    selectedDoctor.getCode(),
+                    AppointmentStatus.PENDING
+            );
+
+            allAppointments.add(appointment);
+            patient.addAppointment(appointment);
+
+            System.out.println("\nConsulta agendada com sucesso!");
+            System.out.println("Médico: " + selectedDoctor.getName());
+            System.out.println("Data e hora: " + appointment.getFormattedDateTime());
+
+        } catch (NumberFormatException e) {
+            System.out.println("Entrada inválida. Digite um número.");
+        } catch (Exception e) {
+            System.err.println("Erro: " + e.getMessage());
+            e.printStackTrace(System.err);
+
+        }
+    }
+
+    /**
+     * Mostra os primeiros horários livres da clínica, entre todos os médicos
+     * ativos, e agenda a consulta no horário escolhido
      *
      * @param patient Paciente
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void viewFutureAppointments(Patient patient, List<Appointment> allAppointments, Scanner scanner) {
-        List<Appointment> futureAppointments = new ArrayList<>();
+    private static void scheduleAtEarliestFreeSlot(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
+        try {
+            List<String> activeCRMs = new ArrayList<>();
+            for (Doctor doctor : DoctorDirectory.getDoctors()) {
+                if (!doctor.isRemoved()) {
+                    activeCRMs.add(doctor.getCode());
+                }
+            }
+
+            if (activeCRMs.isEmpty()) {
+                System.out.println("Não há médicos cadastrados no sistema.");
+                return;
+            }
+
+            List<FreeSlot> freeSlots = allAppointments.findEarliestFreeSlots(
+                    activeCRMs, AppClock.now(), FREE_SLOTS_SHOWN);
+
+            if (freeSlots.isEmpty()) {
+                System.out.println("Não há horários livres no momento.");
+                return;
+            }
+
+            System.out.println("\nPrimeiros horários livres da clínica:");
+            ListRenderer out = new ListRenderer();
+            for (int i = 0; i < freeSlots.size(); i++) {
+                FreeSlot slot = freeSlots.get(i);
+                out.append(i + 1).append(" - ").appendDateTime(slot.getDateTime())
+                        .append(" - ").append(getDoctorName(slot.getDoctorCRM()))
+                        .append(" (CRM: ").append(slot.getDoctorCRM()).append(')').newLine();
+            }
+            out.flush();
+
+            System.out.print("\nDigite o número do horário desejado (0 para voltar): ");
+            int slotIndex = Integer.parseInt(scanner.nextLine()) - 1;
 
-        // Filtrar consultas pendentes (futuras)
-        for (Appointment app : patient.getAppointmentList()) {
-            if (app.getStatus() == AppointmentStatus.PENDING) {
-                futureAppointments.add(app);
+            if (slotIndex == -1) {
+                return;
             }
+            if (slotIndex < 0 || slotIndex >= freeSlots.size()) {
+                System.out.println("Seleção inválida.");
+                return;
+            }
+
+            FreeSlot slot = freeSlots.get(slotIndex);
+            LocalDateTime dateTime = slot.getDateTime();
+
+            // O horário pode ter sido ocupado enquanto a lista era exibida
+            if (allAppointments.hasConflict(slot.getDoctorCRM(), dateTime.toLocalDate(), dateTime.toLocalTime(), null)) {
+                System.out.println("Este horário acabou de ser ocupado. Escolha outro.");
+                return;
+            }
+
+            Appointment appointment = new Appointment(
+                    dateTime.toLocalDate(),
+                    dateTime.toLocalTime(),
+                    patient.getCpf(),
+                    slot.getDoctorCRM(),
+                    AppointmentStatus.PENDING
+            );
+
+            allAppointments.add(appointment);
+            patient.addAppointment(appointment);
+
+            System.out.println("\nConsulta agendada com sucesso!");
+            System.out.println("Médico: " + getDoctorName(slot.getDoctorCRM()));
+            System.out.println("Data e hora: " + appointment.getFormattedDateTime());
+
+        } catch (NumberFormatException e) {
+            System.out.println("Entrada inválida. Digite um número.");
+        } catch (Exception e) {
+            System.err.println("Erro: " + e.getMessage());
+            e.printStackTrace(System.err);
+
         }
+    }
+
+    /**
+     * Exibe as consultas futuras (agendadas) do paciente com opções de gerenciamento
+     *
+     * @param patient Paciente
+     * @param allAppointments Todas as consultas
+     * @param scanner Scanner para leitura
+     */
+    private static void viewFutureAppointments(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
+        // Consultas pendentes (futuras), já em ordem de data/hora
+        List<Appointment> futureAppointments = upcomingAppointments(patient);
 
         if (futureAppointments.isEmpty()) {
             System.out.println("Você não tem consultas agendadas.");
             return;
         }
 
-        // Ordenar por data/hora
-        futureAppointments.sort(Comparator.comparing(Appointment::getDate)
-                .thenComparing(Appointment::getTime));
-
         System.out.println("\nSuas consultas agendadas:");
 
-        for (int i = 0; i < futureAppointments.size(); i++) {
-            Appointment app = futureAppointments.get(i);
-            System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " (Médico: " + getDoctorName(app.getDoctorCRM()) + ")");
-        }
+        printNumberedAppointments(futureAppointments);
 
         System.out.println("\nDeseja gerenciar alguma consulta? (s/n): ");
         String response = scanner.nextLine();
@@ -317,6 +468,36 @@ public class PatientView {
         }
     }
 
+    /**
+     * Retorna as consultas pendentes do paciente que ainda não terminaram, em
+     * ordem de data/hora, lidas do índice do paciente. A cópia fixa a numeração
+     * exibida, mesmo que uma consulta seja concluída em segundo plano antes da
+     * escolha do usuário.
+     *
+     * @param patient Paciente
+     * @return Consultas futuras
+     */
+    private static List<Appointment> upcomingAppointments(Patient patient) {
+        List<Appointment> result = new ArrayList<>();
+        patient.getTimeline().upcoming(AppClock.now()).forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Lista consultas numeradas a partir de 1, com data/hora e nome do médico
+     *
+     * @param appointments Consultas a listar
+     */
+    private static void printNumberedAppointments(List<Appointment> appointments) {
+        ListRenderer out = new ListRenderer();
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment app = appointments.get(i);
+            out.append(i + 1).append(" - ").appendDateTime(app.getDate(), app.getTime())
+                    .append(" (Médico: ").append(getDoctorName(app.getDoctorCRM())).append(')').newLine();
+        }
+        out.flush();
+    }
+
     /**
      * Exibe as consultas já realizadas pelo paciente
      *
@@ -324,27 +505,16 @@ public class PatientView {
      * @param scanner Scanner para leitura
      */
     private static void viewPastAppointments(Patient patient, Scanner scanner) {
-        List<Appointment> pastAppointments = new ArrayList<>();
+        // Consultas realizadas, da mais recente para a mais antiga, uma página por vez
+        ListIterator<Appointment> pastAppointments = patient.getTimeline().past(AppClock.now());
 
-        // Filtrar consultas realizadas
-        for (Appointment app : patient.getAppointmentList()) {
-            if (app.getStatus() == AppointmentStatus.COMPLETED ||
-                    (app.hasOccurred() && app.getStatus() != AppointmentStatus.CANCELLED)) {
-                pastAppointments.add(app);
-            }
-        }
-
-        if (pastAppointments.isEmpty()) {
+        if (!pastAppointments.hasNext()) {
             System.out.println("Você não tem consultas realizadas.");
             return;
         }
 
-        // Ordenar por data/hora (mais recente primeiro)
-        pastAppointments.sort(Comparator.comparing(Appointment::getDate)
-                .thenComparing(Appointment::getTime).reversed());
-
         System.out.println("\nSuas consultas realizadas:");
-        UIUtils.paginateList(pastAppointments, 5, scanner);
+        UIUtils.paginate(pastAppointments, 5, ListRenderer::appendAppointment, scanner);
     }
 
     /**
@@ -354,31 +524,18 @@ public class PatientView {
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void rescheduleAppointment(Patient patient, List<Appointment> allAppointments, Scanner scanner) {
-        List<Appointment> futureAppointments = new ArrayList<>();
-
-        // Filtrar consultas pendentes (futuras)
-        for (Appointment app : patient.getAppointmentList()) {
-            if (app.getStatus() == AppointmentStatus.PENDING) {
-                futureAppointments.add(app);
-            }
-        }
+    private static void rescheduleAppointment(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
+        // Consultas pendentes (futuras), já em ordem de data/hora
+        List<Appointment> futureAppointments = upcomingAppointments(patient);
 
         if (futureAppointments.isEmpty()) {
             System.out.println("Você não tem consultas agendadas para remarcar.");
             return;
         }
 
-        // Ordenar por data/hora
-        futureAppointments.sort(Comparator.comparing(Appointment::getDate)
-                .thenComparing(Appointment::getTime));
-
         System.out.println("\nSelecione a consulta que deseja remarcar:");
 
-        for (int i = 0; i < futureAppointments.size(); i++) {
-            Appointment app = futureAppointments.get(i);
-            System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " (Médico: " + getDoctorName(app.getDoctorCRM()) + ")");
-        }
+        printNumberedAppointments(futureAppointments);
 
         System.out.print("\nDigite o número da consulta (0 para voltar): ");
         int selection = Integer.parseInt(scanner.nextLine()) - 1;
@@ -404,7 +561,7 @@ public class PatientView {
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void doRescheduleAppointment(Appointment appointment, Patient patient, List<Appointment> allAppointments, Scanner scanner) {
+    private static void doRescheduleAppointment(Appointment appointment, Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
         try {
             // Obter nova data
             System.out.print("Digite a nova data da consulta (yyyy-MM-dd): ");
@@ -414,72 +571,46 @@ public class PatientView {
             System.out.print("Digite o novo horário da consulta (HH:mm): ");
             String timeStr = scanner.nextLine();
 
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+            DateTimeFormatter dateFormatter = ListRenderer.ISO_DATE_FORMATTER;
+            DateTimeFormatter timeFormatter = ListRenderer.TIME_FORMATTER;
 
             LocalDate newDate = LocalDate.parse(dateStr, dateFormatter);
             LocalTime newTime = LocalTime.parse(timeStr, timeFormatter);
 
             // Verificar se a data é no futuro
-            if (newDate.isBefore(LocalDate.now())) {
+            if (newDate.isBefore(AppClock.today())) {
                 System.out.println("A data da consulta deve ser futura.");
                 return;
             }
 
             // Verificar se já existe consulta no mesmo horário para o médico
-            boolean conflictFound = false;
-            for (Appointment app : allAppointments) {
-                if (app != appointment &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM()) &&
-                        app.getDate().equals(newDate) &&
-                        app.getTime().equals(newTime) &&
-                        app.getStatus() == AppointmentStatus.PENDING) {
-                    conflictFound = true;
-                    break;
-                }
-            }
-
-            if (conflictFound) {
+            if (allAppointments.hasConflict(appointment.getDoctorCRM(), newDate, newTime,
+                    appointment.getDurationMinutes(), appointment)) {
                 System.out.println("Já existe uma consulta agendada com este médico neste horário.");
                 return;
             }
 
-            // Remover a consulta antiga
-            int indexToRemove = -1;
-            for (int i = 0; i < allAppointments.size(); i++) {
-                Appointment app = allAppointments.get(i);
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
-
-                    indexToRemove = i;
-                    break;
-                }
-            }
+            // Localizar a consulta antiga pelo ID
+            Appointment existing = allAppointments.findById(appointment.getId());
 
-            if (indexToRemove != -1) {
+            if (existing != null) {
                 // Criar nova consulta com os mesmos dados, exceto data e hora
                 Appointment newAppointment = new Appointment(
                         newDate,
                         newTime,
                         appointment.getPatientCPF(),
                         appointment.getDoctorCRM(),
-                        AppointmentStatus.PENDING
+                        AppointmentStatus.PENDING,
+                        appointment.getDurationMinutes()
                 );
 
-                // Substituir na lista geral
-                allAppointments.set(indexToRemove, newAppointment);
-
-                // Salvar a lista atualizada
-                Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
+                // Substituir no repositório
+                allAppointments.replace(existing, newAppointment);
 
                 // Substituir na lista do paciente
                 for (int i = 0; i < patient.getAppointmentList().size(); i++) {
                     Appointment app = patient.getAppointmentList().get(i);
-                    if (app.getDate().equals(appointment.getDate()) &&
-                            app.getTime().equals(appointment.getTime()) &&
-                            app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
+                    if (app.getId() == appointment.getId()) {
 
                         // Substituir na lista de consultas do paciente
                         patient.getAppointmentList().set(i, newAppointment);
@@ -509,31 +640,18 @@ public class PatientView {
      * @param allAppointments Todas as consultas
      * @param scanner Scanner para leitura
      */
-    private static void cancelAppointment(Patient patient, List<Appointment> allAppointments, Scanner scanner) {
-        List<Appointment> futureAppointments = new ArrayList<>();
-
-        // Filtrar consultas pendentes (futuras)
-        for (Appointment app : patient.getAppointmentList()) {
-            if (app.getStatus() == AppointmentStatus.PENDING) {
-                futureAppointments.add(app);
-            }
-        }
+    private static void cancelAppointment(Patient patient, AppointmentRepository allAppointments, Scanner scanner) {
+        // Consultas pendentes (futuras), já em ordem de data/hora
+        List<Appointment> futureAppointments = upcomingAppointments(patient);
 
         if (futureAppointments.isEmpty()) {
             System.out.println("Você não tem consultas agendadas para cancelar.");
             return;
         }
 
-        // Ordenar por data/hora
-        futureAppointments.sort(Comparator.comparing(Appointment::getDate)
-                .thenComparing(Appointment::getTime));
-
         System.out.println("\nSelecione a consulta que deseja cancelar:");
 
-        for (int i = 0; i < futureAppointments.size(); i++) {
-            Appointment app = futureAppointments.get(i);
-            System.out.println((i + 1) + " - " + app.getFormattedDateTime() + " (Médico: " + getDoctorName(app.getDoctorCRM()) + ")");
-        }
+        printNumberedAppointments(futureAppointments);
 
         System.out.print("\nDigite o número da consulta (0 para voltar): ");
         int selection = Integer.parseInt(scanner.nextLine()) - 1;
@@ -564,26 +682,19 @@ public class PatientView {
      * @param appointment Consulta a ser cancelada
      * @param allAppointments Todas as consultas
      */
-    private static void doCancelAppointment(Appointment appointment, List<Appointment> allAppointments) {
+    private static void doCancelAppointment(Appointment appointment, AppointmentRepository allAppointments) {
         try {
-            // Encontrar e atualizar a consulta na lista
-            for (Appointment app : allAppointments) {
-                if (app.getDate().equals(appointment.getDate()) &&
-                        app.getTime().equals(appointment.getTime()) &&
-                        app.getPatientCPF().equals(appointment.getPatientCPF()) &&
-                        app.getDoctorCRM().equals(appointment.getDoctorCRM())) {
-
-                    app.setStatus(AppointmentStatus.CANCELLED);
-                    break;
-                }
+            // Encontrar a consulta no repositório pelo ID e atualizá-la
+            Appointment existing = allAppointments.findById(appointment.getId());
+            if (existing == null) {
+                System.out.println("Erro: Consulta não encontrada na lista.");
+                return;
             }
+            allAppointments.updateStatus(existing, AppointmentStatus.CANCELLED);
 
             // Atualizar o status na lista do paciente
             appointment.setStatus(AppointmentStatus.CANCELLED);
 
-            // Salvar a lista atualizada
-            Appointment.saveAppointmentsToCSV(allAppointments, APPOINTMENT_CSV);
-
             System.out.println("Consulta cancelada com sucesso!");
 
         } catch (Exception e) {
@@ -601,12 +712,9 @@ public class PatientView {
      */
     private static String getDoctorName(String crm) {
         try {
-            List<Doctor> doctors = Doctor.loadFromCSV(DOCTOR_CSV);
-
-            for (Doctor doctor : doctors) {
-                if (doctor.getCode().equals(crm)) {
-                    return doctor.getName();
-                }
+            Doctor doctor = DoctorDirectory.findByCRM(crm);
+            if (doctor != null) {
+                return doctor.getName();
             }
 
             return "CRM " + crm + " (Médico não encontrado)";
@@ -0,0 +1,176 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Perfil das fases de inicialização da aplicação (modo --profile-startup):
+ * para cada fase registra o tempo decorrido, o tempo de CPU e os bytes
+ * alocados pela thread que a executou, e o número de registros processados.
+ *
+ * Desligado (o padrão), iniciar e encerrar uma fase não faz nada. Ligado, o
+ * relatório é exibido no console e acrescentado a {@link #REPORT_FILE}, em
+ * CSV, para acompanhar o custo da inicialização conforme os dados crescem.
+ *
+ * O tempo de CPU e a alocação são os da thread que executou a fase: o
+ * trabalho feito em outras threads (ex.: a associação em paralelo) aparece
+ * apenas no tempo decorrido.
+ */
+public final class StartupProfiler {
+
+    /** Arquivo CSV a que cada execução com perfil acrescenta suas fases */
+    public static final String REPORT_FILE = "startup-profile.csv";
+
+    private static final String CSV_HEADER = "Execucao,Fase,Registros,Decorrido_ns,CPU_ns,Alocado_bytes";
+
+    private static boolean enabled;
+    private static final List<Phase> phases = new ArrayList<>();
+
+    private StartupProfiler() {
+    }
+
+    /**
+     * Fase medida da inicialização
+     */
+    public static final class Phase {
+        private final String name;
+        private final long startNanos;
+        private final long startCpu;
+        private final long startAllocated;
+        private long records;
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        private Phase(String name, boolean measured) {
+            this.name = name;
+            this.startAllocated = measured ? allocatedBytes() : 0;
+            this.startCpu = measured ? cpuTime() : 0;
+            this.startNanos = measured ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Encerra a fase
+         *
+         * @param records Registros processados na fase
+         */
+        public void end(long records) {
+            if (this == DISABLED) {
+                return;
+            }
+            wallNanos = System.nanoTime() - startNanos;
+            cpuNanos = startCpu < 0 ? -1 : cpuTime() - startCpu;
+            allocatedBytes = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+            this.records = records;
+            synchronized (phases) {
+                phases.add(this);
+            }
+        }
+    }
+
+    private static final Phase DISABLED = new Phase("", false);
+
+    /**
+     * Liga o perfil de inicialização
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * @return true se o perfil de inicialização estiver ligado
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inicia uma fase
+     *
+     * @param name Nome da fase (sem vírgulas, por causa do CSV)
+     * @return Fase a ser encerrada com {@link Phase#end(long)}
+     */
+    public static Phase begin(String name) {
+        return enabled ? new Phase(name, true) : DISABLED;
+    }
+
+    /**
+     * Exibe o relatório das fases medidas e o acrescenta a {@link #REPORT_FILE}.
+     * Não faz nada se o perfil estiver desligado.
+     */
+    public static void report() {
+        if (!enabled) {
+            return;
+        }
+        List<Phase> measured;
+        synchronized (phases) {
+            measured = new ArrayList<>(phases);
+        }
+
+        ListRenderer renderer = new ListRenderer(System.out);
+        renderer.newLine().append("=== PERFIL DE INICIALIZAÇÃO ===").newLine();
+        renderer.append(String.format("  %-30s %12s %12s %12s %14s", "fase", "registros", "decorrido", "CPU", "alocado")).newLine();
+        long wall = 0;
+        long cpu = 0;
+        long allocated = 0;
+        for (Phase phase : measured) {
+            renderer.append(String.format("  %-30s %,12d %9.1f ms %9.1f ms %11.1f MB", phase.name, phase.records,
+                    phase.wallNanos / 1e6, phase.cpuNanos / 1e6, phase.allocatedBytes / 1e6)).newLine();
+            wall += phase.wallNanos;
+            cpu += phase.cpuNanos;
+            allocated += phase.allocatedBytes;
+        }
+        renderer.append(String.format("  %-30s %12s %9.1f ms %9.1f ms %11.1f MB", "total", "",
+                wall / 1e6, cpu / 1e6, allocated / 1e6)).newLine();
+        renderer.flush();
+
+        try {
+            write(Paths.get(REPORT_FILE), measured);
+            System.out.println("Perfil gravado em " + REPORT_FILE);
+        } catch (IOException e) {
+            System.out.println("Erro ao gravar o perfil de inicialização: " + e.getMessage());
+        }
+    }
+
+    private static void write(Path file, List<Phase> measured) throws IOException {
+        boolean newFile = !Files.exists(file);
+        // Identifica a execução (data e hora ISO), para separar as execuções no mesmo arquivo
+        String run = AppClock.now().withNano(0).toString();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+            }
+            for (Phase phase : measured) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d", run, phase.name, phase.records,
+                        phase.wallNanos, phase.cpuNanos, phase.allocatedBytes));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static long cpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporização hierárquica: agenda itens para um instante futuro
+ * (em ticks, ex.: minutos) e os entrega quando o tempo chega, sem percorrer
+ * todos os itens agendados a cada avanço.
+ *
+ * São 4 níveis de 64 posições. O nível 0 tem uma posição por tick; cada
+ * nível acima cobre 64 vezes mais tempo por posição (64 ticks, 4096 ticks,
+ * ...). Um item fica no nível mais baixo cujo alcance contém o seu instante;
+ * quando o nível de baixo completa uma volta, a posição correspondente do
+ * nível de cima é redistribuída para baixo. Itens além do alcance do último
+ * nível (64⁴ ticks, cerca de 31 anos em minutos) ficam numa lista à parte,
+ * redistribuída a cada volta completa.
+ *
+ * Agendar e avançar um tick custam O(1) amortizado. Não é sincronizada.
+ *
+ * @param <T> Tipo dos itens agendados
+ */
+public final class TimerWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<Entry<T>>[][] buckets = new List[LEVELS][SLOTS];
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<T> ready = new ArrayList<>();
+    private long current;
+    private int size;
+
+    /**
+     * Cria uma roda vazia
+     *
+     * @param startTick Tick atual (itens agendados até ele vencem no próximo avanço)
+     */
+    public TimerWheel(long startTick) {
+        this.current = startTick;
+    }
+
+    /**
+     * Agenda um item
+     *
+     * @param item Item a entregar
+     * @param dueTick Tick em que o item vence; se já passou, vence no próximo avanço
+     */
+    public void schedule(T item, long dueTick) {
+        size++;
+        if (dueTick <= current) {
+            ready.add(item);
+        } else {
+            place(new Entry<>(item, dueTick));
+        }
+    }
+
+    /**
+     * Avança o tempo até o tick informado, entregando em ordem os itens vencidos
+     *
+     * @param targetTick Novo tick atual (valores anteriores ao atual são ignorados)
+     * @param expired Recebe cada item vencido
+     */
+    public void advanceTo(long targetTick, Consumer<? super T> expired) {
+        deliverReady(expired);
+        while (current < targetTick) {
+            if (size == 0) {
+                // Nada agendado: nenhuma posição a redistribuir no caminho
+                current = targetTick;
+                return;
+            }
+            current++;
+            cascade();
+            List<Entry<T>> due = buckets[0][(int) (current & MASK)];
+            if (due != null && !due.isEmpty()) {
+                buckets[0][(int) (current & MASK)] = null;
+                for (Entry<T> entry : due) {
+                    size--;
+                    expired.accept(entry.item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna o tick atual
+     *
+     * @return Último tick até o qual a roda avançou
+     */
+    public long getCurrentTick() {
+        return current;
+    }
+
+    /**
+     * Retorna o número de itens agendados ainda não entregues
+     *
+     * @return Quantidade de itens
+     */
+    public int size() {
+        return size;
+    }
+
+    private void deliverReady(Consumer<? super T> expired) {
+        if (ready.isEmpty()) {
+            return;
+        }
+        List<T> items = new ArrayList<>(ready);
+        ready.clear();
+        size -= items.size();
+        items.forEach(expired);
+    }
+
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * level;
+            // Mesmo bloco ou até 63 blocos à frente neste nível: a posição ainda não passou
+            if ((entry.due >>> shift) - (current >>> shift) < SLOTS) {
+                int index = (int) ((entry.due >>> shift) & MASK);
+                List<Entry<T>> bucket = buckets[level][index];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets[level][index] = bucket;
+                }
+                bucket.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    /**
+     * Ao completar uma volta de um nível, traz para baixo a posição do nível
+     * de cima que começa agora (do nível mais alto para o mais baixo)
+     */
+    private void cascade() {
+        int level = 0;
+        while (level < LEVELS && ((current >>> (BITS * level)) & MASK) == 0) {
+            level++;
+        }
+        if (level == LEVELS) {
+            List<Entry<T>> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            entries.forEach(this::place);
+            level = LEVELS - 1;
+        }
+        for (int l = level; l >= 1; l--) {
+            int index = (int) ((current >>> (BITS * l)) & MASK);
+            List<Entry<T>> entries = buckets[l][index];
+            if (entries != null) {
+                buckets[l][index] = null;
+                entries.forEach(this::place);
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long due;
+
+        Entry(T item, long due) {
+            this.item = item;
+            this.due = due;
+        }
+    }
+}
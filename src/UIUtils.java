@@ -1,5 +1,7 @@
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Scanner;
+import java.util.function.BiConsumer;
 
 /**
  * Classe utilitária para funções de interface com o usuário.
@@ -22,6 +24,21 @@ public class UIUtils {
                 cpf.substring(9);
     }
 
+    /**
+     * Lista médicos numerados a partir de 1, com nome e CRM
+     *
+     * @param doctors Médicos a listar
+     */
+    public static void printNumberedDoctors(List<Doctor> doctors) {
+        ListRenderer out = new ListRenderer();
+        for (int i = 0; i < doctors.size(); i++) {
+            Doctor doctor = doctors.get(i);
+            out.append(i + 1).append(" - ").append(doctor.getName())
+                    .append(" (CRM: ").append(doctor.getCode()).append(')').newLine();
+        }
+        out.flush();
+    }
+
     /**
      * Exibe uma lista de itens com paginação.
      * Este método substitui as implementações duplicadas em DoctorView e PatientView.
@@ -36,35 +53,116 @@ public class UIUtils {
             System.out.println("Nenhum item para exibir.");
             return;
         }
+        paginate(list.listIterator(), list.size(), pageSize, (out, item) -> out.append(String.valueOf(item)), scanner);
+    }
 
+    /**
+     * Exibe com paginação os itens lidos de um cursor, uma página por vez,
+     * sem montar a lista completa. Permite avançar, voltar e ir para uma
+     * página pelo número; só os itens da página exibida ficam em memória.
+     * Cada página é montada num {@link ListRenderer} e escrita de uma vez.
+     *
+     * @param <T> Tipo dos itens
+     * @param cursor Cursor posicionado no primeiro item (ex.: {@link IndexCursor})
+     * @param pageSize Número de itens por página
+     * @param row Escreve no renderizador o texto de um item (sem o fim de linha)
+     * @param scanner Scanner para leitura da entrada do usuário
+     */
+    public static <T> void paginate(ListIterator<T> cursor, int pageSize,
+                                    BiConsumer<ListRenderer, ? super T> row, Scanner scanner) {
+        if (!cursor.hasNext()) {
+            System.out.println("Nenhum item para exibir.");
+            return;
+        }
+        paginate(cursor, -1, pageSize, row, scanner);
+    }
+
+    /**
+     * @param total Número total de itens, ou -1 se desconhecido (o número de
+     *              páginas só é exibido quando conhecido)
+     */
+    private static <T> void paginate(ListIterator<T> cursor, int total, int pageSize,
+                                     BiConsumer<ListRenderer, ? super T> row, Scanner scanner) {
+        ListRenderer out = new ListRenderer();
         try {
-            int total = list.size();
-            int pages = (int) Math.ceil((double) total / pageSize);
+            int pages = total < 0 ? -1 : (int) Math.ceil((double) total / pageSize);
             int page = 0;
+            // Posição do cursor (índice do próximo item)
+            int position = 0;
 
-            while (page < pages) {
+            while (true) {
                 int start = page * pageSize;
-                int end = Math.min(start + pageSize, total);
+                out.newLine().append("Página ").append(page + 1);
+                if (pages >= 0) {
+                    out.append('/').append(pages);
+                }
+                out.newLine();
+                while (position < start + pageSize && cursor.hasNext()) {
+                    row.accept(out, cursor.next());
+                    out.newLine();
+                    position++;
+                }
 
-                System.out.println("\nPágina " + (page + 1) + "/" + pages);
-                for (int i = start; i < end; i++) {
-                    System.out.println(list.get(i));
+                boolean hasNext = cursor.hasNext();
+                if (!hasNext && page == 0) {
+                    break;
                 }
 
-                if (page < pages - 1) { // Se não for a última página
-                    System.out.print("Deseja ver a próxima página? (s/n): ");
-                    String input = scanner.nextLine();
-                    if (!input.equalsIgnoreCase("s")) break;
+                out.append(hasNext
+                        ? "Deseja ver a próxima página? (s/n, a = anterior, número = ir para a página): "
+                        : "Última página. Voltar? (a = anterior, número = ir para a página, Enter = sair): ");
+                out.flush();
+                String input = scanner.nextLine().trim();
+
+                int target;
+                if (input.equalsIgnoreCase("s") && hasNext) {
+                    target = page + 1;
+                } else if (input.equalsIgnoreCase("a") && page > 0) {
+                    target = page - 1;
+                } else if (input.matches("\\d{1,9}") && Integer.parseInt(input) >= 1) {
+                    target = Integer.parseInt(input) - 1;
+                } else {
+                    break;
                 }
 
-                page++;
+                // Páginas cujo início não cabe em um int não existem (e target * pageSize estouraria)
+                boolean exists = target < Integer.MAX_VALUE / pageSize;
+                if (exists) {
+                    position = moveTo(cursor, position, target * pageSize);
+                    exists = position >= target * pageSize && cursor.hasNext();
+                }
+                if (!exists) {
+                    out.append("Página ").append(target + 1).append(" não existe.").newLine();
+                    position = moveTo(cursor, position, start);
+                    continue;
+                }
+                page = target;
             }
+            out.flush();
         } catch (Exception e) {
+            out.flush();
             System.err.println("Erro durante a paginação: " + e.getMessage());
             e.printStackTrace(System.err);
 
         }
     }
 
+    /**
+     * Move o cursor até a posição informada (ou até o fim, se ela não existir)
+     *
+     * @return Posição alcançada
+     */
+    private static int moveTo(ListIterator<?> cursor, int position, int target) {
+        while (position < target && cursor.hasNext()) {
+            cursor.next();
+            position++;
+        }
+        while (position > target && cursor.hasPrevious()) {
+            cursor.previous();
+            position--;
+        }
+        return position;
+    }
+
 
 }